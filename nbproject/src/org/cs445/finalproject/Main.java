@@ -28,6 +28,11 @@ public class Main {
     public static final int WINDOW_WIDTH = 640;
     public static final int WINDOW_HEIGHT = 480;
     public static final String WINDOW_TITLE = "VoxelScape";
+    // perspective projection; FPCameraController builds the culling frustum
+    // from the same values
+    public static final float FIELD_OF_VIEW = 100.0f;
+    public static final float NEAR_PLANE = 0.1f;
+    public static final float FAR_PLANE = 300.0f;
     
     private static final Logger LOGGER = 
             Logger.getLogger(Main.class.getSimpleName());
@@ -82,9 +87,6 @@ public class Main {
     // purpose: Initialize a OpenGL context
     private void initGL() {
         glClearDepth(1.0f);
-        glEnableClientState(GL_VERTEX_ARRAY);
-        glEnableClientState(GL_COLOR_ARRAY);
-        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
         initLightArrays();
         glLight(GL_LIGHT0, GL_POSITION, lightPosition);
         glLight(GL_LIGHT0, GL_SPECULAR, whiteLight);
@@ -98,7 +100,7 @@ public class Main {
         glClearColor(0.5294f, 0.8078f, 0.92f, 1.0f);
         glMatrixMode(GL_PROJECTION);
         glLoadIdentity();
-        GLU.gluPerspective(100.0f, displayMode.getWidth() / (float) displayMode.getHeight(), 0.1f, 300.0f);
+        GLU.gluPerspective(FIELD_OF_VIEW, displayMode.getWidth() / (float) displayMode.getHeight(), NEAR_PLANE, FAR_PLANE);
         glMatrixMode(GL_MODELVIEW);
         glHint(GL_PERSPECTIVE_CORRECTION_HINT, GL_NICEST);
     }
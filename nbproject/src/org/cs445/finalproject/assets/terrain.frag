@@ -0,0 +1,14 @@
+#version 120
+// Terrain fragment shader. Wraps u and v inside the tile so one quad
+// can repeat a tile of the atlas across several blocks.
+
+uniform sampler2D atlas;
+uniform float tilesPerRow;
+
+varying vec4 tileCoord;
+varying vec4 lightColor;
+
+void main() {
+    vec2 uv = (tileCoord.zw + fract(tileCoord.xy)) / tilesPerRow;
+    gl_FragColor = texture2D(atlas, uv) * clamp(lightColor, 0.0, 1.0);
+}
@@ -0,0 +1,31 @@
+#version 120
+// Terrain vertex shader. Reproduces the fixed function lighting of
+// GL_LIGHT0 and passes the tile texture coordinates through.
+// position holds the block edge relative to the chunk and a lighting
+// term from 0 to 255. tile holds (u, v, tile column, tile row), where
+// u and v count tiles across the quad.
+
+uniform vec3 chunkOrigin;
+uniform float blockLength;
+
+attribute vec4 position;
+attribute vec4 tile;
+
+varying vec4 tileCoord;
+varying vec4 lightColor;
+
+void main() {
+    vec4 vertex = vec4(chunkOrigin + position.xyz * blockLength, 1.0);
+    vec4 eye = gl_ModelViewMatrix * vertex;
+    vec3 normal = normalize(gl_NormalMatrix * gl_Normal);
+    vec4 lightPosition = gl_LightSource[0].position;
+    vec3 toLight = normalize(lightPosition.xyz - eye.xyz * lightPosition.w);
+    float diffuse = max(dot(normal, toLight), 0.0);
+    lightColor = gl_FrontLightModelProduct.sceneColor
+            + gl_FrontLightProduct[0].ambient
+            + diffuse * gl_FrontLightProduct[0].diffuse;
+    lightColor.rgb *= position.w / 255.0;
+    lightColor.a = gl_FrontMaterial.diffuse.a;
+    tileCoord = tile;
+    gl_Position = gl_ModelViewProjectionMatrix * vertex;
+}
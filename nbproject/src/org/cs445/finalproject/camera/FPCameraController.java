@@ -16,7 +16,11 @@ package org.cs445.finalproject.camera;
 import java.nio.FloatBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.cs445.finalproject.geometry.Chunk;
+import org.cs445.finalproject.Main;
+import org.cs445.finalproject.geometry.ChunkManager;
+import org.cs445.finalproject.geometry.CulledMesher;
+import org.cs445.finalproject.geometry.Frustum;
+import org.cs445.finalproject.geometry.GreedyMesher;
 import org.lwjgl.BufferUtils;
 import static org.lwjgl.opengl.GL11.*;
 
@@ -24,6 +28,7 @@ import org.lwjgl.Sys;
 import org.lwjgl.input.Keyboard;
 import org.lwjgl.input.Mouse;
 import org.lwjgl.opengl.Display;
+import org.lwjgl.opengl.DisplayMode;
 import org.lwjgl.util.vector.Vector3f;
 
 public class FPCameraController {
@@ -34,7 +39,8 @@ public class FPCameraController {
     private float yaw;
     private float pitch;
 
-    private Chunk world;
+    private ChunkManager world;
+    private final Frustum frustum;
     private final int worldX;
     private final int worldY;
     private final int worldZ;
@@ -42,6 +48,8 @@ public class FPCameraController {
     private int lightOffsetZ;
     
     private boolean collisionsOn;
+    // half the width of the box the camera collides with
+    private static final float HALF_WIDTH = 0.5f;
 
     private enum LightMode {
         FULL_LIT,
@@ -71,6 +79,12 @@ public class FPCameraController {
         light2 = 1.0f;
         light3 = 1.0f;
         lightMode = LightMode.FULL_LIT.ordinal();
+        // the aspect of the display mode Main set up gluPerspective with
+        DisplayMode displayMode = Display.getDisplayMode();
+        frustum = new Frustum();
+        frustum.setPerspective(Main.FIELD_OF_VIEW,
+                displayMode.getWidth() / (float) displayMode.getHeight(),
+                Main.NEAR_PLANE, Main.FAR_PLANE);
         toggleLightMode();
     }
 
@@ -86,131 +100,33 @@ public class FPCameraController {
         pitch -= amount;
     }
 
-    // method: walkForward
-    // purpose: Move the camera forward relative to its current rotation (yaw)
-    public void walkForward(float distance) {
-        float prevpositionx = position.x;
-        float prevpositionz = position.z;
-        float xOffset = distance * (float) Math.sin(Math.toRadians(yaw));
-        float zOffset = distance * (float) Math.cos(Math.toRadians(yaw));
-        position.x -= xOffset;
-        position.z += zOffset;
-        if (collisionsOn && (world.tooClose(position.x, position.y, position.z))) {
-            if ( !world.tooClose( position.x, position.y, prevpositionz)) {
-                position.z = prevpositionz;
-            } else if ( ! world.tooClose( prevpositionx, position.y, position.z)) {
-                position.x = prevpositionx;
-            } else {
-                position.x = prevpositionx;
-                position.z = prevpositionz;
-            }
-        } else {
-            lookAt.x -= xOffset;
-            lookAt.z += zOffset;
-            FloatBuffer lightPosition = BufferUtils.createFloatBuffer(4);
-            lightPosition.put(lookAt.x).put(lookAt.y).put(lookAt.z).put(1.0f).flip();
-            glLight(GL_LIGHT0, GL_POSITION, lightPosition);
+    // method: move
+    // purpose: Move the camera by one frame's worth of every pressed
+    // movement key: forward and right relative to its yaw, and up. With
+    // collisions on, the move is swept against the world one axis at a time
+    // so the camera slides along walls instead of stopping.
+    public void move(float forward, float right, float up) {
+        float sin = (float) Math.sin(Math.toRadians(yaw));
+        float cos = (float) Math.cos(Math.toRadians(yaw));
+        float xOffset = -forward * sin - right * cos;
+        float yOffset = -up;
+        float zOffset = forward * cos - right * sin;
+        if (collisionsOn) {
+            // the camera position is the negated world position
+            float[] box = {
+                -position.x - HALF_WIDTH, -position.y, -position.z - HALF_WIDTH,
+                -position.x + HALF_WIDTH, -position.y, -position.z + HALF_WIDTH
+            };
+            world.moveBox(box, -xOffset, -yOffset, -zOffset);
+            xOffset = -(box[0] + HALF_WIDTH) - position.x;
+            yOffset = -box[1] - position.y;
+            zOffset = -(box[2] + HALF_WIDTH) - position.z;
         }
-    }
-
-    // method: walkBackwards
-    // purpose: Move the camera backward relative to its current rotation (yaw)
-    public void walkBackwards(float distance) {
-        float prevpositionx = position.x;
-        float prevpositionz = position.z;
-        float xOffset = distance * (float) Math.sin(Math.toRadians(yaw));
-        float zOffset = distance * (float) Math.cos(Math.toRadians(yaw));
         position.x += xOffset;
-        position.z -= zOffset;
-        if (collisionsOn && (world.tooClose(position.x, position.y, position.z))) {
-            if ( !world.tooClose( position.x, position.y, prevpositionz)) {
-                position.z = prevpositionz;
-            } else if ( ! world.tooClose( prevpositionx, position.y, position.z)) {
-                position.x = prevpositionx;
-            } else {
-                position.x = prevpositionx;
-                position.z = prevpositionz;
-            }
-        } else {
-            lookAt.x += xOffset;
-            lookAt.z -= zOffset;
-            FloatBuffer lightPosition = BufferUtils.createFloatBuffer(4);
-            lightPosition.put(lookAt.x).put(lookAt.y).put(lookAt.z).put(1.0f).flip();
-            glLight(GL_LIGHT0, GL_POSITION, lightPosition);
-        }
-    }
-
-    // method: strafeLeft
-    // purpose: Strafes the camera left relative to its current rotation (yaw)
-    public void strafeLeft(float distance) {
-        float prevpositionx = position.x;
-        float prevpositionz = position.z;
-        float xOffset = distance * (float) Math.sin(Math.toRadians(yaw - 90));
-        float zOffset = distance * (float) Math.cos(Math.toRadians(yaw - 90));
-        position.x -= xOffset;
+        position.y += yOffset;
         position.z += zOffset;
-        if (collisionsOn && (world.tooClose(position.x, position.y, position.z))) {
-            if ( !world.tooClose( position.x, position.y, prevpositionz)) {
-                position.z = prevpositionz;
-            } else if ( ! world.tooClose( prevpositionx, position.y, position.z)) {
-                position.x = prevpositionx;
-            } else {
-                position.x = prevpositionx;
-                position.z = prevpositionz;
-            }
-        } else {
-            lookAt.x -= xOffset;
-            lookAt.z += zOffset;
-            FloatBuffer lightPosition = BufferUtils.createFloatBuffer(4);
-            lightPosition.put(lookAt.x).put(lookAt.y).put(lookAt.z).put(1.0f).flip();
-            glLight(GL_LIGHT0, GL_POSITION, lightPosition);
-        }
-    }
-
-    // method: strafeRight
-    // purpose: Strafes the camera right relative to its current rotation (yaw)
-    public void strafeRight(float distance) {
-        float prevpositionx = position.x;
-        float prevpositionz = position.z;
-        float xOffset = distance * (float) Math.sin(Math.toRadians(yaw + 90));
-        float zOffset = distance * (float) Math.cos(Math.toRadians(yaw + 90));
-        position.x -= xOffset;
-        position.z += zOffset;
-        if (collisionsOn && (world.tooClose(position.x, position.y, position.z))) {
-            if ( !world.tooClose( position.x, position.y, prevpositionz)) {
-                position.z = prevpositionz;
-            } else if ( ! world.tooClose( prevpositionx, position.y, position.z)) {
-                position.x = prevpositionx;
-            } else {
-                position.x = prevpositionx;
-                position.z = prevpositionz;
-            }
-        } else {
-            lookAt.x -= xOffset;
-            lookAt.z += zOffset;
-            FloatBuffer lightPosition = BufferUtils.createFloatBuffer(4);
-            lightPosition.put(lookAt.x).put(lookAt.y).put(lookAt.z).put(1.0f).flip();
-            glLight(GL_LIGHT0, GL_POSITION, lightPosition);
-        }
-    }
-
-    // method: moveUp
-    // purpose: Moves the camera up
-    public void moveUp(float distance) {
-        position.y -= distance;
-        if (collisionsOn && (world.tooClose(position.x, position.y, position.z))) {
-            position.y += distance;
-        }
-
-    }
-
-    // method: moveDown
-    // purpose: Moves the camera down
-    public void moveDown(float distance) {
-        position.y += distance;
-        if (collisionsOn && (world.tooClose(position.x, position.y, position.z))) {
-            position.y -= distance;
-        }
+        lookAt.x += xOffset;
+        lookAt.z += zOffset;
     }
 
     // method: lookThrough
@@ -246,7 +162,8 @@ public class FPCameraController {
     // method: gameLoop
     // purpose: Calls render and handles the camera movement
     public void gameLoop() {
-        world = new Chunk(worldX, worldY, worldZ);
+        world = new ChunkManager(worldX, worldY, worldZ);
+        world.update(position.x, position.y, position.z);
         float dx = 0.0f;
         float dy = 0.0f;
         float dt = 0.0f; // length of the frame
@@ -266,24 +183,28 @@ public class FPCameraController {
             yaw(dx * mouseSensitivity);
             pitch(dy * mouseSensitivity);
 
+            float forward = 0.0f;
+            float right = 0.0f;
+            float up = 0.0f;
             if (Keyboard.isKeyDown(Keyboard.KEY_W)) { // move foward
-                walkForward(movementSpeed);
+                forward += movementSpeed;
             }
             if (Keyboard.isKeyDown(Keyboard.KEY_S)) { // move backward
-                walkBackwards(movementSpeed);
+                forward -= movementSpeed;
             }
             if (Keyboard.isKeyDown(Keyboard.KEY_A)) { // strafe left
-                strafeLeft(movementSpeed);
+                right -= movementSpeed;
             }
             if (Keyboard.isKeyDown(Keyboard.KEY_D)) { // strafe right
-                strafeRight(movementSpeed);
+                right += movementSpeed;
             }
             if (Keyboard.isKeyDown(Keyboard.KEY_SPACE)) { // move up
-                moveUp(movementSpeed);
+                up += movementSpeed;
             }
             if (Keyboard.isKeyDown(Keyboard.KEY_LSHIFT)) { // move down
-                moveDown(movementSpeed);
+                up -= movementSpeed;
             }
+            move(forward, right, up);
             if (Keyboard.isKeyDown(Keyboard.KEY_R)) { // randomize world
                 world.randomize();
             }
@@ -296,14 +217,21 @@ public class FPCameraController {
                     
                 }
             }
+            if (Keyboard.isKeyDown(Keyboard.KEY_G)) { // toggle greedy meshing
+                toggleGreedyMeshing();
+            }
+
+            world.update(position.x, position.y, position.z);
 
             glLoadIdentity();
             lookThrough();
+            frustum.setView(position.x, position.y, position.z, yaw, pitch);
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
             render();
             Display.update();
             Display.sync(60);
         }
+        world.dispose();
         Display.destroy();
     }
 
@@ -331,6 +259,22 @@ public class FPCameraController {
         }
     }
     
+    // method: toggleGreedyMeshing
+    // purpose: Switch the world between culled and greedy meshing
+    private void toggleGreedyMeshing() {
+        try {
+            if (world.getMesher() instanceof GreedyMesher) {
+                world.setMesher(new CulledMesher());
+            } else {
+                world.setMesher(new GreedyMesher());
+            }
+            Thread.sleep(250);
+        } catch (InterruptedException ex) {
+            Logger.getLogger(FPCameraController.class.getName()).log(
+                    Level.SEVERE, "Fail to delay mesher toggle", ex);
+        }
+    }
+
     private void toggleNightMode(){
         try {
             if(night == true){
@@ -354,7 +298,7 @@ public class FPCameraController {
     // purpose: Render primitives to the camera
     private void render() {
         glCullFace(GL_BACK);
-        world.render();
+        world.render(frustum);
     }
 
     // method: isCloseRequested
@@ -54,7 +54,8 @@ public class Block {
     }
     
     // method: setTexCoords
-    // purpose: Set the texture coordinates of the Block
+    // purpose: Set the texture coordinates of the Block, 4 per vertex:
+    // the corner inside the tile, then the tile column and row in the atlas
     public void setTexCoords(float[] coords) {
         texCoords = coords;
     }
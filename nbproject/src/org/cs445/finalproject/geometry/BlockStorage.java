@@ -0,0 +1,169 @@
+/**
+ * *************************************************************
+ * file: BlockStorage.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Block id storage for a chunk, split into 16x16x16 sections
+ * that each keep their own palette. Id 0 is air. A flat occupancy bit
+ * mask answers air/solid queries without going through a palette.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.Arrays;
+
+public class BlockStorage {
+
+    public static final int AIR = 0;
+    public static final int SECTION_BITS = 4;
+    public static final int SECTION_SIZE = 1 << SECTION_BITS;
+    private static final int SECTION_MASK = SECTION_SIZE - 1;
+
+    private final int sizeX, sizeY, sizeZ;
+    private final int sectionsX, sectionsY, sectionsZ;
+    private final PalettedContainer[] sections;
+    private final int zShift, yShift;
+    private final int strideX, strideZ;
+    private final long[] solid;
+
+    public BlockStorage(int sizeX, int sizeY, int sizeZ) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        sectionsX = (sizeX + SECTION_MASK) >> SECTION_BITS;
+        sectionsY = (sizeY + SECTION_MASK) >> SECTION_BITS;
+        sectionsZ = (sizeZ + SECTION_MASK) >> SECTION_BITS;
+        sections = new PalettedContainer[sectionsX * sectionsY * sectionsZ];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new PalettedContainer(
+                    SECTION_SIZE * SECTION_SIZE * SECTION_SIZE);
+        }
+        // power of two strides keep the mask index free of multiplies
+        yShift = 32 - Integer.numberOfLeadingZeros(sizeY - 1);
+        zShift = 32 - Integer.numberOfLeadingZeros(sizeZ - 1);
+        strideX = 1 << zShift << yShift;
+        strideZ = 1 << yShift;
+        solid = new long[((sizeX << zShift << yShift) + 63) >>> 6];
+    }
+
+    // method: get
+    // purpose: Returns the block id at a local coordinate. The coordinate
+    // must be inside the storage, see contains.
+    public int get(int x, int y, int z) {
+        return sections[sectionIndex(x, y, z)].get(localIndex(x, y, z));
+    }
+
+    // method: set
+    // purpose: Store a block id at a local coordinate
+    public void set(int x, int y, int z, int id) {
+        sections[sectionIndex(x, y, z)].set(localIndex(x, y, z), id);
+        int index = flatIndex(x, y, z);
+        if (id == AIR) {
+            solid[index >>> 6] &= ~(1L << index);
+        } else {
+            solid[index >>> 6] |= 1L << index;
+        }
+    }
+
+    // method: isSolid
+    // purpose: Returns true if a block is stored at the coordinate
+    public boolean isSolid(int x, int y, int z) {
+        return isSolid(flatIndex(x, y, z));
+    }
+
+    // method: isSolid
+    // purpose: Returns true if a block is stored at a flat index. Neighbours
+    // of an index are found by adding or subtracting the strides.
+    public boolean isSolid(int index) {
+        return (solid[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // method: isEnclosed
+    // purpose: Returns true if a flat index and its x, z and upper
+    // neighbours all hold blocks. Reads only the mask, the caller keeps the
+    // neighbours inside the storage.
+    public boolean isEnclosed(int index) {
+        long[] mask = solid;
+        return (mask[index >>> 6] & (1L << index)) != 0
+                && (mask[(index + 1) >>> 6] & (1L << (index + 1))) != 0
+                && (mask[(index - strideX) >>> 6] & (1L << (index - strideX))) != 0
+                && (mask[(index + strideX) >>> 6] & (1L << (index + strideX))) != 0
+                && (mask[(index - strideZ) >>> 6] & (1L << (index - strideZ))) != 0
+                && (mask[(index + strideZ) >>> 6] & (1L << (index + strideZ))) != 0;
+    }
+
+    // method: flatIndex
+    // purpose: Returns the flat index of a coordinate, the y stride is 1
+    public int flatIndex(int x, int y, int z) {
+        return (x << zShift | z) << yShift | y;
+    }
+
+    // method: getStrideX
+    // purpose: Returns the flat index distance between x neighbours
+    public int getStrideX() {
+        return strideX;
+    }
+
+    // method: getStrideZ
+    // purpose: Returns the flat index distance between z neighbours
+    public int getStrideZ() {
+        return strideZ;
+    }
+
+    // method: contains
+    // purpose: Returns true if the coordinate lies inside the storage
+    public boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0
+                && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    // method: clear
+    // purpose: Reset every section to air
+    public void clear() {
+        for (PalettedContainer section : sections) {
+            section.clear();
+        }
+        Arrays.fill(solid, 0L);
+    }
+
+    // method: getMemoryBytes
+    // purpose: Returns an estimate of the bytes held by all sections
+    public long getMemoryBytes() {
+        long bytes = 32 + sections.length * 4L + solid.length * 8L;
+        for (PalettedContainer section : sections) {
+            bytes += 16 + section.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    // method: sectionIndex
+    // purpose: Returns the index of the section holding a coordinate
+    private int sectionIndex(int x, int y, int z) {
+        return ((x >> SECTION_BITS) * sectionsY + (y >> SECTION_BITS))
+                * sectionsZ + (z >> SECTION_BITS);
+    }
+
+    // method: localIndex
+    // purpose: Returns the index of a coordinate inside its section
+    private static int localIndex(int x, int y, int z) {
+        return (((x & SECTION_MASK) << SECTION_BITS) | (z & SECTION_MASK))
+                << SECTION_BITS | (y & SECTION_MASK);
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * *************************************************************
+ * file: BufferArena.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Hands out ranges of a few large vertex buffers instead of a
+ * buffer per mesh. Each page keeps a sorted free list, allocation is
+ * first fit and freed ranges merge with their free neighbours. Pages
+ * that become empty are released, except the last one.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BufferArena {
+
+    // ranges start on a quad so draws can begin at offset / vertex size
+    public static final int ALIGNMENT = 4 * VertexFormat.BYTES;
+    public static final int DEFAULT_PAGE_BYTES = 4 * 1024 * 1024;
+
+    // a range of a page handed out by allocate
+    public static class Range {
+
+        private final Page page;
+        private final int offset;
+        private final int size;
+        private boolean released;
+
+        private Range(Page page, int offset, int size) {
+            this.page = page;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        public int getHandle() {
+            return page.handle;
+        }
+
+        // method: getOffset
+        // purpose: Returns the byte offset of the range in its buffer
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        // method: release
+        // purpose: Give the range back to its arena, only the first call
+        // counts
+        public void release() {
+            if (!released) {
+                released = true;
+                page.arena.free(this);
+            }
+        }
+    }
+
+    // one vertex buffer and the free ranges in it, sorted by offset
+    private static class Page {
+
+        final BufferArena arena;
+        final int handle;
+        final int size;
+        int[] freeOffsets = new int[8];
+        int[] freeSizes = new int[8];
+        int freeCount;
+        int live;
+
+        Page(BufferArena arena, int handle, int size) {
+            this.arena = arena;
+            this.handle = handle;
+            this.size = size;
+            freeOffsets[0] = 0;
+            freeSizes[0] = size;
+            freeCount = 1;
+        }
+    }
+
+    private final GpuBuffers buffers;
+    private final int pageBytes;
+    private final List<Page> pages = new ArrayList<>();
+    private long liveBytes;
+
+    public BufferArena(GpuBuffers buffers) {
+        this(buffers, DEFAULT_PAGE_BYTES);
+    }
+
+    public BufferArena(GpuBuffers buffers, int pageBytes) {
+        this.buffers = buffers;
+        this.pageBytes = align(pageBytes);
+    }
+
+    // method: allocate
+    // purpose: Returns a range of at least a number of bytes, from the first
+    // page with a large enough free range. A new page is created when none
+    // has room, sized to fit when the request is larger than a page.
+    public Range allocate(int bytes) {
+        int size = align(Math.max(bytes, 1));
+        for (Page page : pages) {
+            Range range = take(page, size);
+            if (range != null) {
+                return range;
+            }
+        }
+        Page page = new Page(this, buffers.create(Math.max(size, pageBytes)),
+                Math.max(size, pageBytes));
+        pages.add(page);
+        return take(page, size);
+    }
+
+    // method: write
+    // purpose: Copy the remaining bytes of data into a range at an offset
+    // from its start
+    public void write(Range range, int offset, ByteBuffer data) {
+        if (offset < 0 || offset + data.remaining() > range.size) {
+            throw new IllegalArgumentException("Write outside of range");
+        }
+        buffers.write(range.getHandle(), range.offset + offset, data);
+    }
+
+    // method: getLiveBytes
+    // purpose: Returns the bytes of every range handed out and not released
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    // method: getCapacityBytes
+    // purpose: Returns the bytes of every page, live or free
+    public long getCapacityBytes() {
+        long bytes = 0;
+        for (Page page : pages) {
+            bytes += page.size;
+        }
+        return bytes;
+    }
+
+    // method: getFragmentedBytes
+    // purpose: Returns the free bytes outside the largest free range of each
+    // page, which only requests smaller than that range can use
+    public long getFragmentedBytes() {
+        long bytes = 0;
+        for (Page page : pages) {
+            int largest = 0;
+            int free = 0;
+            for (int i = 0; i < page.freeCount; i++) {
+                largest = Math.max(largest, page.freeSizes[i]);
+                free += page.freeSizes[i];
+            }
+            bytes += free - largest;
+        }
+        return bytes;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    // method: dispose
+    // purpose: Release every page, ranges still handed out become invalid
+    public void dispose() {
+        for (Page page : pages) {
+            buffers.delete(page.handle);
+        }
+        pages.clear();
+        liveBytes = 0;
+    }
+
+    // method: take
+    // purpose: Cut a range from the first free range of a page that fits it,
+    // or returns null
+    private Range take(Page page, int size) {
+        for (int i = 0; i < page.freeCount; i++) {
+            if (page.freeSizes[i] < size) {
+                continue;
+            }
+            int offset = page.freeOffsets[i];
+            page.freeOffsets[i] += size;
+            page.freeSizes[i] -= size;
+            if (page.freeSizes[i] == 0) {
+                removeFree(page, i);
+            }
+            page.live += size;
+            liveBytes += size;
+            return new Range(page, offset, size);
+        }
+        return null;
+    }
+
+    // method: free
+    // purpose: Put a range back in its page's free list, merging it with the
+    // free ranges on either side
+    private void free(Range range) {
+        Page page = range.page;
+        page.live -= range.size;
+        liveBytes -= range.size;
+        int i = 0;
+        while (i < page.freeCount && page.freeOffsets[i] < range.offset) {
+            i++;
+        }
+        boolean before = i > 0 && page.freeOffsets[i - 1]
+                + page.freeSizes[i - 1] == range.offset;
+        boolean after = i < page.freeCount
+                && range.offset + range.size == page.freeOffsets[i];
+        if (before && after) {
+            page.freeSizes[i - 1] += range.size + page.freeSizes[i];
+            removeFree(page, i);
+        } else if (before) {
+            page.freeSizes[i - 1] += range.size;
+        } else if (after) {
+            page.freeOffsets[i] = range.offset;
+            page.freeSizes[i] += range.size;
+        } else {
+            insertFree(page, i, range.offset, range.size);
+        }
+        if (page.live == 0 && pages.size() > 1 && pages.remove(page)) {
+            buffers.delete(page.handle);
+        }
+    }
+
+    private static void removeFree(Page page, int i) {
+        System.arraycopy(page.freeOffsets, i + 1, page.freeOffsets, i,
+                page.freeCount - i - 1);
+        System.arraycopy(page.freeSizes, i + 1, page.freeSizes, i,
+                page.freeCount - i - 1);
+        page.freeCount--;
+    }
+
+    private static void insertFree(Page page, int i, int offset, int size) {
+        if (page.freeCount == page.freeOffsets.length) {
+            page.freeOffsets = Arrays.copyOf(page.freeOffsets,
+                    page.freeCount * 2);
+            page.freeSizes = Arrays.copyOf(page.freeSizes,
+                    page.freeCount * 2);
+        }
+        System.arraycopy(page.freeOffsets, i, page.freeOffsets, i + 1,
+                page.freeCount - i);
+        System.arraycopy(page.freeSizes, i, page.freeSizes, i + 1,
+                page.freeCount - i);
+        page.freeOffsets[i] = offset;
+        page.freeSizes[i] = size;
+        page.freeCount++;
+    }
+
+    private static int align(int bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -13,20 +13,16 @@
  */
 package org.cs445.finalproject.geometry;
 
-import java.nio.FloatBuffer;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL15.*;
 
 import java.util.Random;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.cs445.finalproject.noise.SimplexNoise;
-import org.lwjgl.BufferUtils;
 import org.newdawn.slick.opengl.TextureLoader;
 import org.newdawn.slick.util.ResourceLoader;
 
@@ -34,16 +30,34 @@ public class Chunk {
 
     public static final int SIZE = 100;
     public static final int LENGTH = 2;
+    public static final int HEIGHT = 30;
 
-    private int maxHeight = 30;
-    private int midHeight; // calculated based on noise
+    static {
+        // block edges are packed as unsigned bytes, see VertexFormat
+        if (SIZE > VertexFormat.MAX_EDGE || HEIGHT > VertexFormat.MAX_EDGE) {
+            throw new IllegalStateException("Chunk size " + SIZE + "x"
+                    + HEIGHT + " does not fit the vertex format");
+        }
+    }
+
+    private static final int SECTION_MASK = BlockStorage.SECTION_SIZE - 1;
+    // terrain is generated in tiles of columns one section wide, so tiles
+    // never write to the same section or word of the occupancy mask
+    private static final int TILE_SIZE = BlockStorage.SECTION_SIZE;
+    // spacing of the cave density lattice, tiles must be a multiple of the
+    // x and z steps
+    private static final int CAVE_STEP_X = 4;
+    private static final int CAVE_STEP_Y = 8;
+    private static final int CAVE_STEP_Z = 4;
+    private static final int CAVE_FEATURE = 32;
+    private static final double CAVE_THRESHOLD = 0.25;
+
+    private int maxHeight = HEIGHT;
     private int minHeight = 15;
-    private Set<Integer> surfaceLevels;
-    private Block[][][] blocks;
-    private int totalBlocks;
-    private int vboVertexHandle;
-    private int vboColorHandle;
-    private int vboTextureHandle;
+    private IntHistogram surfaceLevels;
+    private BlockStorage blocks;
+    private ChunkSection[] sections;
+    private final int sectionsX, sectionsY, sectionsZ;
     private final int startX, startY, startZ;
 
     private final static Block GRASS = new Block(Block.Type.Grass);
@@ -53,202 +67,789 @@ public class Chunk {
     private final static Block STONE = new Block(Block.Type.Stone);
     private final static Block BEDROCK = new Block(Block.Type.Bedrock);
 
-    private final Random random;
+    // indexed by storage id, id 0 is air
+    private final static Block[] BLOCKS = {
+        null, GRASS, SAND, WATER, DIRT, STONE, BEDROCK
+    };
+
+    private static boolean texturesLoaded;
+    // shared by all chunks, sections are only meshed on the GL thread
+    private static final MeshBuilder BUILDER = new MeshBuilder();
+    private static ForkJoinPool generationPool = ForkJoinPool.commonPool();
+    // how far sampled noise may be from the exact value, see noiseLevel
+    // read by the generation workers
+    private static volatile double noiseEpsilon = 0.0;
+    private static volatile boolean cavesEnabled = true;
+
+    private WorldSeed worldSeed;
+    private Mesher mesher;
+    // meshes dirty sections on worker threads, null meshes on the GL thread
+    private final MeshScheduler scheduler;
+    // held by mesh workers while reading blocks, and by every block write
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean disposed;
 
     private static final Logger LOGGER = Logger.getLogger(Chunk.class.getName());
 
     public Chunk(int startX, int startY, int startZ) {
-        midHeight = maxHeight;
-        random = new Random();
+        this(startX, startY, startZ, new Random().nextLong());
+    }
+
+    public Chunk(int startX, int startY, int startZ, long worldSeed) {
+        this(startX, startY, startZ, worldSeed, new CulledMesher());
+    }
+
+    public Chunk(int startX, int startY, int startZ, long worldSeed,
+            Mesher mesher) {
+        this(startX, startY, startZ, worldSeed, mesher, null);
+    }
+
+    public Chunk(int startX, int startY, int startZ, long worldSeed,
+            Mesher mesher, MeshScheduler scheduler) {
+        this(startX, startY, startZ, mesher, scheduler);
+        generate(worldSeed);
+    }
+
+    // builds an empty chunk, for ChunkManager to fill with generateBlocks
+    // off the GL thread
+    Chunk(int startX, int startY, int startZ, Mesher mesher,
+            MeshScheduler scheduler) {
+        this.mesher = mesher;
+        this.scheduler = scheduler;
+        loadTextures();
+        sectionsX = (SIZE + SECTION_MASK) >> BlockStorage.SECTION_BITS;
+        sectionsY = (maxHeight + SECTION_MASK) >> BlockStorage.SECTION_BITS;
+        sectionsZ = (SIZE + SECTION_MASK) >> BlockStorage.SECTION_BITS;
+        this.startX = startX;
+        this.startY = startY;
+        this.startZ = startZ;
+        blocks = new BlockStorage(SIZE, maxHeight, SIZE);
+        createSections();
+    }
+
+    // method: loadTextures
+    // purpose: Load the terrain atlas and block texture coordinates once,
+    // they are shared by every chunk
+    private static void loadTextures() {
+        if (texturesLoaded) {
+            return;
+        }
         try {
             TextureLoader.getTexture("PNG",
                     ResourceLoader.getResourceAsStream(
                             "org/cs445/finalproject/assets/terrain.png"));
-        } catch (Exception e) {
+        } catch (Exception | LinkageError e) {
+            // without GL, as in the tests, the blocks are still usable
             LOGGER.log(Level.WARNING, "Failed to load terrain.png", e);
         }
-        vboVertexHandle = glGenBuffers();
-        vboColorHandle = glGenBuffers();
-        vboTextureHandle = glGenBuffers();
-        this.startX = startX;
-        this.startY = startY;
-        this.startZ = startZ;
-        GRASS.setTexCoords(createTexCube(0.0f, 0.0f, Block.Type.Grass));
-        SAND.setTexCoords(createTexCube(0.0f, 0.0f, Block.Type.Sand));
-        WATER.setTexCoords(createTexCube(0.0f, 0.0f, Block.Type.Water));
-        DIRT.setTexCoords(createTexCube(0.0f, 0.0f, Block.Type.Dirt));
-        STONE.setTexCoords(createTexCube(0.0f, 0.0f, Block.Type.Stone));
-        BEDROCK.setTexCoords(createTexCube(0.0f, 0.0f, Block.Type.Bedrock));
-        randomize();
+        for (int i = 1; i < BLOCKS.length; i++) {
+            Block block = BLOCKS[i];
+            block.setTexCoords(createTileCoords(createTexCube(0.0f, 0.0f,
+                    Block.Type.values()[block.getTypeId()])));
+        }
+        texturesLoaded = true;
+    }
+
+    // method: createTileCoords
+    // purpose: Split atlas texture coordinates into the corner inside the
+    // tile and the tile column and row, so the shader can wrap inside a tile
+    static float[] createTileCoords(float[] atlasCoords) {
+        int tiles = TerrainShader.TILES_PER_ROW;
+        float[] tileCoords = new float[atlasCoords.length * 2];
+        for (int quad = 0; quad < atlasCoords.length; quad += 8) {
+            float minU = Float.MAX_VALUE;
+            float minV = Float.MAX_VALUE;
+            for (int i = quad; i < quad + 8; i += 2) {
+                minU = Math.min(minU, atlasCoords[i]);
+                minV = Math.min(minV, atlasCoords[i + 1]);
+            }
+            float tileU = Math.round(minU * tiles);
+            float tileV = Math.round(minV * tiles);
+            for (int i = quad; i < quad + 8; i += 2) {
+                int j = i * 2;
+                tileCoords[j] = Math.round(atlasCoords[i] * tiles) - tileU;
+                tileCoords[j + 1] = Math.round(atlasCoords[i + 1] * tiles) - tileV;
+                tileCoords[j + 2] = tileU;
+                tileCoords[j + 3] = tileV;
+            }
+        }
+        return tileCoords;
     }
 
     // method: render
-    // purpose: Render the chunk
-    public void render() {
+    // purpose: Render the sections of the chunk that intersect a frustum,
+    // in a single multi-draw per vertex buffer
+    public void render(DrawBatch batch, Frustum frustum) {
         glPushMatrix();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glVertexPointer(3, GL_FLOAT, 0, 0L);
-        glBindBuffer(GL_ARRAY_BUFFER, vboColorHandle);
-        glColorPointer(3, GL_FLOAT, 0, 0L);
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
         glBindTexture(GL_TEXTURE_2D, 1);
-        glTexCoordPointer(2, GL_FLOAT, 0, 0L);
-        glDrawArrays(GL_QUADS, 0, SIZE * SIZE * SIZE * 24); // size^3 * (3 floats) * (6 vertices)
+        float half = LENGTH / 2.0f;
+        for (ChunkSection section : sections) {
+            float minX = startX - half + section.getX() * LENGTH;
+            float minY = startY - half + section.getY() * LENGTH;
+            float minZ = startZ - half + section.getZ() * LENGTH;
+            if (frustum.intersectsBox(minX, minY, minZ,
+                    minX + section.getSizeX() * LENGTH,
+                    minY + section.getSizeY() * LENGTH,
+                    minZ + section.getSizeZ() * LENGTH)) {
+                section.addTo(batch);
+            }
+        }
+        batch.draw();
         glPopMatrix();
     }
 
     // method: randomize
-    // purpose: Find a good random chunk
+    // purpose: Find a good random chunk. The next seed follows from the
+    // current one, so a sequence of randomizations can be replayed.
     public void randomize() {
-        Block[][][] blocks = rebuildMesh(startX, startY, startZ);
-        LOGGER.log(Level.INFO, "Surface noise levels: {0}", surfaceLevels.size());
-        createVertexBuffers(blocks);
+        generate(worldSeed.next());
+    }
+
+    // method: generate
+    // purpose: Build the chunk from a world seed. Chunks generated from the
+    // same seed share their noise fields and line up at their borders.
+    public void generate(long worldSeed) {
+        generate(new WorldSeed(worldSeed));
+    }
+
+    // method: generate
+    // purpose: Build the chunk from a world seed. The same seed always
+    // builds the same blocks.
+    public void generate(WorldSeed worldSeed) {
+        generateBlocks(worldSeed);
+        rebuildDirtySections();
+    }
+
+    // method: generateBlocks
+    // purpose: Fill the blocks from a world seed and flag every section for
+    // remeshing, without meshing. Safe off the GL thread while the chunk is
+    // not rendered yet.
+    void generateBlocks(WorldSeed worldSeed) {
+        this.worldSeed = worldSeed;
+        lock.writeLock().lock();
+        try {
+            rebuildMesh(startX, startY, startZ);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.log(Level.INFO, "Surface noise levels: {0}", surfaceLevels.distinct());
+    }
+
+    // method: rebuildDirtySections
+    // purpose: Remesh and upload only the sections changed since the last
+    // rebuild. With a scheduler the sections are queued for its workers
+    // instead, and uploaded once they are done. Returns the number of
+    // sections rebuilt or queued.
+    public int rebuildDirtySections() {
+        int rebuilt = 0;
+        for (ChunkSection section : sections) {
+            if (!section.isDirty()) {
+                continue;
+            }
+            if (scheduler == null) {
+                createVertexBuffers(section);
+                rebuilt++;
+            } else if (scheduler.schedule(this, section)) {
+                rebuilt++;
+            }
+        }
+        LOGGER.log(Level.FINE, "Rebuilt {0} sections", rebuilt);
+        return rebuilt;
+    }
+
+    // method: dispose
+    // purpose: Release the vertex buffers of every section
+    public void dispose() {
+        disposed = true;
+        for (ChunkSection section : sections) {
+            section.dispose();
+        }
+    }
+
+    // method: setMesher
+    // purpose: Select how sections are turned into quads. Every section is
+    // remeshed on the next rebuild.
+    public void setMesher(Mesher mesher) {
+        this.mesher = mesher;
+        for (ChunkSection section : sections) {
+            section.markDirty();
+        }
+    }
+
+    public Mesher getMesher() {
+        return mesher;
+    }
+
+    // method: isDisposed
+    // purpose: Returns true once the chunk was unloaded
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    // method: readLock
+    // purpose: Returns the lock to hold while reading blocks off the GL
+    // thread, block writes wait for it
+    Lock readLock() {
+        return lock.readLock();
+    }
+
+    // method: isMeshed
+    // purpose: Returns true once every section has an up to date mesh
+    public boolean isMeshed() {
+        for (ChunkSection section : sections) {
+            if (section.isDirty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // method: getVertexCount
+    // purpose: Returns the number of vertices uploaded for all sections,
+    // which is the number render draws
+    public int getVertexCount() {
+        int count = 0;
+        for (ChunkSection section : sections) {
+            count += section.getVertexCount();
+        }
+        return count;
+    }
+
+    // method: getMemoryBytes
+    // purpose: Returns an estimate of the bytes held by the block storage and
+    // the uploaded vertex data of every section
+    public long getMemoryBytes() {
+        long bytes = blocks.getMemoryBytes();
+        for (ChunkSection section : sections) {
+            bytes += section.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getStartZ() {
+        return startZ;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed.getSeed();
+    }
+
+    // method: setGenerationPool
+    // purpose: Set the pool terrain tiles are generated on, null generates
+    // on the calling thread. The terrain is the same either way.
+    public static void setGenerationPool(ForkJoinPool pool) {
+        generationPool = pool;
+    }
+
+    public static ForkJoinPool getGenerationPool() {
+        return generationPool;
+    }
+
+    // method: setNoiseEpsilon
+    // purpose: Set how far noise sampled for the terrain may be from the
+    // exact value. Octaves that cannot change a level by more than this are
+    // pruned; columns close to a level boundary are sampled exactly, so the
+    // terrain is the same for any epsilon.
+    public static void setNoiseEpsilon(double epsilon) {
+        noiseEpsilon = Math.max(0.0, epsilon);
+    }
+
+    public static double getNoiseEpsilon() {
+        return noiseEpsilon;
+    }
+
+    // method: setCavesEnabled
+    // purpose: Set whether caves and overhangs are carved into new terrain
+    public static void setCavesEnabled(boolean enabled) {
+        cavesEnabled = enabled;
+    }
+
+    public static boolean isCavesEnabled() {
+        return cavesEnabled;
     }
 
     // method: rebuildMesh
     // purpose: Build the mesh of blocks using a simplex noise
-    private Block[][][] rebuildMesh(float startX, float startY, float startZ) {
-        blocks = new Block[SIZE][maxHeight][SIZE];
-        totalBlocks = 0;
+    private void rebuildMesh(float startX, float startY, float startZ) {
+        blocks.clear();
 
-        int seed = random.nextInt(SIZE * SIZE);
+        LOGGER.log(Level.INFO, "World seed: {0}", worldSeed);
+        int seed = worldSeed.noiseSeed(WorldSeed.SURFACE_NOISE_1);
         LOGGER.log(Level.INFO, "Noise 1 seed: {0}", seed);
         SimplexNoise surfaceNoise1 = new SimplexNoise(30000, 0.66, seed);
-        seed = random.nextInt(SIZE * SIZE);
+        seed = worldSeed.noiseSeed(WorldSeed.SURFACE_NOISE_2);
         LOGGER.log(Level.INFO, "Noise 2 seed: {0}", seed);
         SimplexNoise surfaceNoise2 = new SimplexNoise(300000, 0.77, seed);
 
-        seed = new Random().nextInt(SIZE * SIZE);
+        seed = worldSeed.noiseSeed(WorldSeed.DEEP_NOISE);
         SimplexNoise deepNoise = new SimplexNoise(30000, 0.77, seed);
 
-        surfaceLevels = new TreeSet<>();
-        for (float x = 0.0f; x < SIZE; x++) {
-            for (float z = 0.0f; z < SIZE; z++) {
-                int i = (int) (startX + x);
-                int k = (int) (startZ + z);
+        seed = worldSeed.noiseSeed(WorldSeed.CAVE_NOISE);
+        SimplexNoise caveNoise = new SimplexNoise(CAVE_FEATURE, 0.5, seed);
 
-                int surfaceHeight = Math.min(Math.max(maxHeight
-                        - (int) (100 * surfaceNoise1.getNoise(i, k)), 1), maxHeight)
-                        + Math.min(Math.max(maxHeight
-                                - (int) (100 * surfaceNoise2.getNoise(i, k)), 1), maxHeight);
-                surfaceHeight /= 2;
+        int[] surfaceHeights = new int[SIZE * SIZE];
+        int tilesX = (SIZE + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesZ = (SIZE + TILE_SIZE - 1) / TILE_SIZE;
+        TileTask task = new TileTask(0, tilesX * tilesZ, tilesZ, surfaceNoise1,
+                surfaceNoise2, deepNoise, caveNoise, surfaceHeights);
+        if (generationPool == null) {
+            task.compute();
+        } else {
+            generationPool.invoke(task);
+        }
+
+        surfaceLevels = new IntHistogram(maxHeight + 1);
+        for (int surfaceHeight : surfaceHeights) {
+            surfaceLevels.add(surfaceHeight);
+        }
+
+        int waterCount = fillLakes();
+        LOGGER.log(Level.INFO, "{0} Water blocks", waterCount);
 
-                int deepHeight = Math.min(Math.max(minHeight
-                        - (int) (100 * deepNoise.getNoise(i, k)), 1), minHeight);
+        // generation stores blocks without flagging sections, tiles running
+        // in parallel would otherwise flag their neighbours' sections
+        for (ChunkSection section : sections) {
+            section.markDirty();
+        }
+    }
 
-                surfaceLevels.add(surfaceHeight);
-                if (surfaceHeight < midHeight) {
-                    midHeight = surfaceHeight;
+    // method: fillLakes
+    // purpose: Fill every depression of the terrain with water up to the
+    // level where it would spill over the chunk border, and turn the lake
+    // floors and shores to sand. Returns the number of water blocks.
+    private int fillLakes() {
+        int[] heights = new int[SIZE * SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int y = maxHeight - 1;
+                while (y >= 0 && !isSolid(x, y, z)) {
+                    y--;
                 }
-                for (float y = 0; y < surfaceHeight; y++) {
-                    blocks[(int) x][(int) y][(int) z] = setBlock(y, deepHeight, surfaceHeight - 1);
+                heights[x * SIZE + z] = y + 1;
+            }
+        }
+        int[] levels = PriorityFlood.spillLevels(heights, SIZE, SIZE);
+        int waterCount = 0;
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int column = x * SIZE + z;
+                int height = heights[column];
+                if (levels[column] > height) {
+                    if (height > 0) {
+                        storeBlock(x, height - 1, z, SAND);
+                    }
+                    for (int y = height; y < levels[column]; y++) {
+                        storeBlock(x, y, z, WATER);
+                        waterCount++;
+                    }
+                } else if (height > 0 && isShore(x, z, height, heights, levels)) {
+                    storeBlock(x, height - 1, z, SAND);
                 }
             }
         }
+        return waterCount;
+    }
 
-        int waterCount = 0;
-        int maxIter = 20;
-        int i = 0;
-        while (waterCount < 10000 && i < maxIter) {
-            int x = random.nextInt(SIZE);
-            int z = random.nextInt(SIZE);
-            int y;
-            for (y = maxHeight - 1; y >= midHeight; y--) {
-                if (blocks[x][y][z] != null) {
-                    break;
+    // method: isShore
+    // purpose: Returns true if a dry column borders a lake whose surface is
+    // at most one block below its top
+    private boolean isShore(int x, int z, int height, int[] heights,
+            int[] levels) {
+        for (int nx = x - 1; nx <= x + 1; nx++) {
+            for (int nz = z - 1; nz <= z + 1; nz++) {
+                if (nx < 0 || nz < 0 || nx >= SIZE || nz >= SIZE) {
+                    continue;
+                }
+                int neighbor = nx * SIZE + nz;
+                if (levels[neighbor] > heights[neighbor]
+                        && height <= levels[neighbor] + 1) {
+                    return true;
                 }
             }
-            LOGGER.log(Level.INFO, "Water level: {0}", y);
-            waterCount = fillLevelBlocks2D(x, y, z, WATER, SAND);
-            LOGGER.log(Level.INFO, "{0} Water blocks", waterCount);
-            i++;
         }
+        return false;
+    }
 
-        Block[][][] blocks = new Block[SIZE][maxHeight][SIZE];
-        for (int x = 0; x < SIZE; x++) {
-            for (int z = 0; z < SIZE; z++) {
-                for (int y = 0; y < maxHeight; y++) {
-                    if (isVisible(x, y, z)) {
-                        blocks[x][y][z] = this.blocks[x][y][z];
-                        totalBlocks++;
+    // method: generateTile
+    // purpose: Fill the columns of one tile from the noise fields. Every
+    // choice depends only on the world seed and the block position, so the
+    // result does not depend on which thread runs the tile or in what order.
+    private void generateTile(int tileX, int tileZ, SimplexNoise surfaceNoise1,
+            SimplexNoise surfaceNoise2, SimplexNoise deepNoise,
+            SimplexNoise caveNoise, int[] surfaceHeights) {
+        int minX = tileX * TILE_SIZE;
+        int minZ = tileZ * TILE_SIZE;
+        int width = Math.min(TILE_SIZE, SIZE - minX);
+        int depth = Math.min(TILE_SIZE, SIZE - minZ);
+        // sample in block units so neighbouring chunks line up
+        int originX = startX / LENGTH + minX;
+        int originZ = startZ / LENGTH + minZ;
+        double[] surface1 = new double[width * depth];
+        double[] surface2 = new double[width * depth];
+        double[] deep = new double[width * depth];
+        double bound1 = surfaceNoise1.getNoise(surface1, originX, originZ, 1,
+                width, depth, noiseEpsilon);
+        double bound2 = surfaceNoise2.getNoise(surface2, originX, originZ, 1,
+                width, depth, noiseEpsilon);
+        double deepBound = deepNoise.getNoise(deep, originX, originZ, 1,
+                width, depth, noiseEpsilon);
+        for (int x = minX; x < minX + width; x++) {
+            for (int z = minZ; z < minZ + depth; z++) {
+                int sample = (z - minZ) * width + (x - minX);
+                int i = originX + x - minX;
+                int k = originZ + z - minZ;
+
+                int surfaceHeight = noiseLevel(surfaceNoise1, i, k,
+                        surface1[sample], bound1, maxHeight)
+                        + noiseLevel(surfaceNoise2, i, k,
+                                surface2[sample], bound2, maxHeight);
+                surfaceHeight /= 2;
+
+                int deepHeight = noiseLevel(deepNoise, i, k,
+                        deep[sample], deepBound, minHeight);
+
+                surfaceHeights[x * SIZE + z] = surfaceHeight;
+                for (int y = 0; y < surfaceHeight; y++) {
+                    storeBlock(x, y, z, pickBlock(i, y, k,
+                            deepHeight, surfaceHeight - 1));
+                }
+            }
+        }
+        if (cavesEnabled) {
+            carveTile(minX, minZ, width, depth, originX, originZ, caveNoise);
+        }
+    }
+
+    // method: carveTile
+    // purpose: Carve caves and overhangs out of the columns of one tile.
+    // 3D density noise is sampled on a coarse lattice, CAVE_STEP_X by
+    // CAVE_STEP_Y by CAVE_STEP_Z blocks apart, and interpolated trilinearly
+    // in between. Blocks where the density exceeds CAVE_THRESHOLD become air,
+    // except on the bottom layer.
+    private void carveTile(int minX, int minZ, int width, int depth,
+            int originX, int originZ, SimplexNoise caveNoise) {
+        // lattice points on both ends, so tiles sharing a border sample the
+        // same points and caves line up across them
+        int pointsX = (width + CAVE_STEP_X - 1) / CAVE_STEP_X + 1;
+        int pointsY = (maxHeight + CAVE_STEP_Y - 1) / CAVE_STEP_Y + 1;
+        int pointsZ = (depth + CAVE_STEP_Z - 1) / CAVE_STEP_Z + 1;
+        double[] density = new double[pointsX * pointsY * pointsZ];
+        for (int px = 0; px < pointsX; px++) {
+            for (int pz = 0; pz < pointsZ; pz++) {
+                for (int py = 0; py < pointsY; py++) {
+                    density[(px * pointsZ + pz) * pointsY + py]
+                            = caveNoise.getNoise(originX + px * CAVE_STEP_X,
+                                    py * CAVE_STEP_Y,
+                                    originZ + pz * CAVE_STEP_Z);
+                }
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            int px = x / CAVE_STEP_X;
+            double fx = (double) (x % CAVE_STEP_X) / CAVE_STEP_X;
+            for (int z = 0; z < depth; z++) {
+                int pz = z / CAVE_STEP_Z;
+                double fz = (double) (z % CAVE_STEP_Z) / CAVE_STEP_Z;
+                int c00 = (px * pointsZ + pz) * pointsY;
+                int c01 = (px * pointsZ + pz + 1) * pointsY;
+                int c10 = ((px + 1) * pointsZ + pz) * pointsY;
+                int c11 = ((px + 1) * pointsZ + pz + 1) * pointsY;
+                for (int y = 1; y < maxHeight; y++) {
+                    if (!isSolid(minX + x, y, minZ + z)) {
+                        continue;
                     }
+                    int py = y / CAVE_STEP_Y;
+                    double fy = (double) (y % CAVE_STEP_Y) / CAVE_STEP_Y;
+                    double d00 = lerp(density[c00 + py], density[c00 + py + 1], fy);
+                    double d01 = lerp(density[c01 + py], density[c01 + py + 1], fy);
+                    double d10 = lerp(density[c10 + py], density[c10 + py + 1], fy);
+                    double d11 = lerp(density[c11 + py], density[c11 + py + 1], fy);
+                    double d = lerp(lerp(d00, d01, fz), lerp(d10, d11, fz), fx);
+                    if (d > CAVE_THRESHOLD) {
+                        storeBlock(minX + x, y, minZ + z, null);
+                    }
+                }
+            }
+        }
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    // method: noiseLevel
+    // purpose: Returns the level, between 1 and top, a noise value maps to.
+    // The value may be off by up to bound; when that could change the level
+    // the noise is sampled again exactly, so the level is always the one the
+    // exact noise gives.
+    private static int noiseLevel(SimplexNoise noise, int x, int y,
+            double value, double bound, int top) {
+        int low = Math.min(Math.max(top - (int) (100 * (value + bound)), 1), top);
+        int high = Math.min(Math.max(top - (int) (100 * (value - bound)), 1), top);
+        if (low != high) {
+            value = noise.getNoise(x, y);
+            low = Math.min(Math.max(top - (int) (100 * value), 1), top);
+        }
+        return low;
+    }
+
+    // class: TileTask
+    // purpose: Generates a range of tiles, splitting it in half until each
+    // task holds a single tile
+    private class TileTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, tilesZ;
+        private final SimplexNoise surfaceNoise1, surfaceNoise2, deepNoise;
+        private final SimplexNoise caveNoise;
+        private final int[] surfaceHeights;
+
+        TileTask(int from, int to, int tilesZ, SimplexNoise surfaceNoise1,
+                SimplexNoise surfaceNoise2, SimplexNoise deepNoise,
+                SimplexNoise caveNoise, int[] surfaceHeights) {
+            this.from = from;
+            this.to = to;
+            this.tilesZ = tilesZ;
+            this.surfaceNoise1 = surfaceNoise1;
+            this.surfaceNoise2 = surfaceNoise2;
+            this.deepNoise = deepNoise;
+            this.caveNoise = caveNoise;
+            this.surfaceHeights = surfaceHeights;
+        }
+
+        @Override
+        protected void compute() {
+            if (generationPool == null || to - from == 1) {
+                for (int tile = from; tile < to; tile++) {
+                    generateTile(tile / tilesZ, tile % tilesZ, surfaceNoise1,
+                            surfaceNoise2, deepNoise, caveNoise, surfaceHeights);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(from, middle, tilesZ, surfaceNoise1,
+                    surfaceNoise2, deepNoise, caveNoise, surfaceHeights),
+                    new TileTask(middle, to, tilesZ, surfaceNoise1,
+                            surfaceNoise2, deepNoise, caveNoise, surfaceHeights));
+        }
+    }
+
+    // method: createSections
+    // purpose: Split the chunk into sections, clipping the last section on
+    // each axis to the chunk size
+    private void createSections() {
+        int sectionSize = BlockStorage.SECTION_SIZE;
+        sections = new ChunkSection[sectionsX * sectionsY * sectionsZ];
+        for (int sx = 0; sx < sectionsX; sx++) {
+            for (int sy = 0; sy < sectionsY; sy++) {
+                for (int sz = 0; sz < sectionsZ; sz++) {
+                    int x = sx * sectionSize;
+                    int y = sy * sectionSize;
+                    int z = sz * sectionSize;
+                    sections[sectionIndex(sx, sy, sz)] = new ChunkSection(
+                            x, y, z,
+                            Math.min(sectionSize, SIZE - x),
+                            Math.min(sectionSize, maxHeight - y),
+                            Math.min(sectionSize, SIZE - z));
                 }
             }
         }
-        return blocks;
     }
 
-    // method: tooClose
-    // purpose: Given a point in space, check if there is a block close to the point. 
-    //          Used for collision checking.
-    public boolean tooClose(float cameraX, float cameraY, float cameraZ) {
-        cameraX += 100;
-        cameraX = 200 - cameraX;
-        cameraZ += 100;
-        cameraZ = 200 - cameraZ;
-        cameraY = 65 - cameraY;
-        return (hasBlock(cameraX - 0.5f, cameraY, cameraZ - 0.5f) || hasBlock(cameraX + 0.5f, cameraY, cameraZ - 0.5f) || hasBlock(cameraX - 0.5f, cameraY, cameraZ + 0.5f) || hasBlock(cameraX + 0.5f, cameraY, cameraZ + 0.5f));
+    // method: sectionIndex
+    // purpose: Returns the index of a section from its section coordinate
+    private int sectionIndex(int sx, int sy, int sz) {
+        return (sx * sectionsY + sy) * sectionsZ + sz;
+    }
+
+    // method: markDirty
+    // purpose: Flag the section holding a local coordinate, and the section
+    // across any face it touches, since visibility looks one block over
+    private void markDirty(int x, int y, int z) {
+        int bits = BlockStorage.SECTION_BITS;
+        int sx = x >> bits;
+        int sy = y >> bits;
+        int sz = z >> bits;
+        sections[sectionIndex(sx, sy, sz)].markDirty();
+        int lx = x & SECTION_MASK;
+        int ly = y & SECTION_MASK;
+        int lz = z & SECTION_MASK;
+        if (lx == 0 && sx > 0) {
+            sections[sectionIndex(sx - 1, sy, sz)].markDirty();
+        } else if (lx == SECTION_MASK && sx < sectionsX - 1) {
+            sections[sectionIndex(sx + 1, sy, sz)].markDirty();
+        }
+        if (ly == 0 && sy > 0) {
+            sections[sectionIndex(sx, sy - 1, sz)].markDirty();
+        } else if (ly == SECTION_MASK && sy < sectionsY - 1) {
+            sections[sectionIndex(sx, sy + 1, sz)].markDirty();
+        }
+        if (lz == 0 && sz > 0) {
+            sections[sectionIndex(sx, sy, sz - 1)].markDirty();
+        } else if (lz == SECTION_MASK && sz < sectionsZ - 1) {
+            sections[sectionIndex(sx, sy, sz + 1)].markDirty();
+        }
     }
 
     // method: hasBlock
-    // purpose: takes in augmented camera coordinates and checks if that coordinate is inside a block on our grid.
-    private boolean hasBlock(float cameraX, float cameraY, float cameraZ) {
-        int gridX = (int) (cameraX / 2 + 0.5f);
-        int gridZ = (int) (cameraZ / 2 + 0.5f);
-        int gridY = (int) (cameraY / 2);
-        try {
-            return blocks[gridX][gridY][gridZ] != null;
-        } catch (ArrayIndexOutOfBoundsException e) {
+    // purpose: takes in world coordinates and checks if that coordinate is inside a block on our grid.
+    public boolean hasBlock(float worldX, float worldY, float worldZ) {
+        int gridX = blockCoord(worldX, startX);
+        int gridY = blockCoord(worldY, startY);
+        int gridZ = blockCoord(worldZ, startZ);
+        return blocks.contains(gridX, gridY, gridZ)
+                && isSolid(gridX, gridY, gridZ);
+    }
+
+    // method: getBlock
+    // purpose: Returns the block at a world coordinate, or null for air and
+    // coordinates outside the chunk
+    public Block getBlock(float worldX, float worldY, float worldZ) {
+        return findBlock(blockCoord(worldX, startX), blockCoord(worldY, startY),
+                blockCoord(worldZ, startZ));
+    }
+
+    // method: setBlock
+    // purpose: Place a block at a world coordinate, null breaks the block
+    // there. Only the sections touching the edited block are remeshed, the
+    // terrain is not regenerated. Returns false if the coordinate is outside
+    // the chunk.
+    public boolean setBlock(float worldX, float worldY, float worldZ,
+            Block block) {
+        int x = blockCoord(worldX, startX);
+        int y = blockCoord(worldY, startY);
+        int z = blockCoord(worldZ, startZ);
+        if (!blocks.contains(x, y, z)) {
             return false;
         }
+        if (blocks.get(x, y, z) == storageId(block)) {
+            return true;
+        }
+        lock.writeLock().lock();
+        try {
+            putBlock(x, y, z, block);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuildDirtySections();
+        return true;
     }
 
-    // method: createVertexBuffers
-    // purpose: Build object, color, and texture vertex buffers
-    private void createVertexBuffers(Block[][][] blocks) {
-        vboColorHandle = glGenBuffers();
-        vboVertexHandle = glGenBuffers();
-        vboTextureHandle = glGenBuffers();
-        FloatBuffer vertexPositionData
-                = BufferUtils.createFloatBuffer(totalBlocks * 6 * 12); // size^3 * (6 vertices) * (12 edges)
-        FloatBuffer vertexColorData
-                = BufferUtils.createFloatBuffer(totalBlocks * 6 * 12);
-        FloatBuffer vertexTextureData
-                = BufferUtils.createFloatBuffer(totalBlocks * 6 * 12);
-        for (float x = 0.0f; x < SIZE; x++) {
-            for (float z = 0.0f; z < SIZE; z++) {
-                for (float y = 0; y < maxHeight; y++) {
-                    Block block = blocks[(int) x][(int) y][(int) z];
-                    if (block == null) {
-                        continue;
+    // method: overlapsBlock
+    // purpose: Returns true if a box in world coordinates overlaps a block of
+    // the chunk. Boxes only touching a block face do not overlap it, a box
+    // with no extent along an axis is treated as a plane through it. Parts
+    // of the box outside the chunk are ignored.
+    public boolean overlapsBlock(float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ) {
+        int lowX = Math.max(blockCoord(minX, startX), 0);
+        int lowY = Math.max(blockCoord(minY, startY), 0);
+        int lowZ = Math.max(blockCoord(minZ, startZ), 0);
+        int highX = Math.min(lastBlockCoord(minX, maxX, startX), SIZE - 1);
+        int highY = Math.min(lastBlockCoord(minY, maxY, startY), maxHeight - 1);
+        int highZ = Math.min(lastBlockCoord(minZ, maxZ, startZ), SIZE - 1);
+        for (int x = lowX; x <= highX; x++) {
+            for (int z = lowZ; z <= highZ; z++) {
+                for (int y = lowY; y <= highY; y++) {
+                    if (isSolid(x, y, z)) {
+                        return true;
                     }
-                    vertexPositionData.put(createCube(
-                            startX + x * LENGTH,
-                            startY + y * LENGTH,
-                            startZ + z * LENGTH));
-                    vertexColorData.put(createCubeVertexCol(
-                            getCubeColor(block)));
-                    vertexTextureData.put(block.getTexCoords());
                 }
             }
         }
-        vertexPositionData.flip();
-        vertexColorData.flip();
-        vertexTextureData.flip();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexPositionData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindBuffer(GL_ARRAY_BUFFER, vboColorHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexColorData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexTextureData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-    }
-
-    // method: createBlock
-    // purpose: Create a block with a type based on some height and level
-    private Block setBlock(float level, float minHeight, float maxHeight) {
+        return false;
+    }
+
+    // method: blockCoord
+    // purpose: Returns the block coordinate holding a world coordinate along
+    // one axis. Blocks are centered on their position, so a block starts half
+    // a block before it.
+    private static int blockCoord(float world, int start) {
+        return (int) Math.floor((world - start) / LENGTH + 0.5f);
+    }
+
+    // method: lastBlockCoord
+    // purpose: Returns the last block coordinate a box from min to max
+    // reaches into along one axis, not counting a block it only touches
+    private static int lastBlockCoord(float min, float max, int start) {
+        if (max <= min) {
+            return blockCoord(min, start);
+        }
+        return (int) Math.ceil((max - start) / LENGTH + 0.5f) - 1;
+    }
+
+    // method: findBlock
+    // purpose: Returns the block at a local coordinate, or null for air and
+    // coordinates outside the chunk
+    Block findBlock(int x, int y, int z) {
+        return blocks.contains(x, y, z) ? blockAt(x, y, z) : null;
+    }
+
+    // method: blockAt
+    // purpose: Returns the block at a local coordinate, or null for air
+    Block blockAt(int x, int y, int z) {
+        return BLOCKS[blocks.get(x, y, z)];
+    }
+
+    // method: isSolid
+    // purpose: Returns true if a block is stored at a local coordinate
+    boolean isSolid(int x, int y, int z) {
+        return blocks.isSolid(x, y, z);
+    }
+
+    // method: isExposed
+    // purpose: Returns true if a face of the block at a local coordinate
+    // touches air or the border of the chunk
+    boolean isExposed(int x, int y, int z, Face face) {
+        int nx = x + face.getDx();
+        int ny = y + face.getDy();
+        int nz = z + face.getDz();
+        return !blocks.contains(nx, ny, nz) || !blocks.isSolid(nx, ny, nz);
+    }
+
+    // method: putBlock
+    // purpose: Store a block at a local coordinate, null stores air
+    private void putBlock(int x, int y, int z, Block block) {
+        blocks.set(x, y, z, storageId(block));
+        markDirty(x, y, z);
+    }
+
+    // method: storeBlock
+    // purpose: Store a block at a local coordinate without flagging any
+    // section, for generation
+    private void storeBlock(int x, int y, int z, Block block) {
+        blocks.set(x, y, z, storageId(block));
+    }
+
+    // method: storageId
+    // purpose: Returns the id a block is stored as, null stores air
+    private static int storageId(Block block) {
+        return block == null ? BlockStorage.AIR : block.getTypeId() + 1;
+    }
+
+    // method: createVertexBuffers
+    // purpose: Build the interleaved vertex buffer for a section
+    private void createVertexBuffers(ChunkSection section) {
+        BUILDER.begin();
+        mesher.mesh(this, section, BUILDER);
+        section.upload(BUILDER.finish(), BUILDER.getVertexCount());
+    }
+
+    // method: pickBlock
+    // purpose: Pick the block at a world block position for a column with
+    // the given deep and surface levels. Stone or dirt below the surface is
+    // chosen from a hash of the position.
+    private Block pickBlock(int x, int level, int z, int minHeight,
+            int maxHeight) {
         if (level == maxHeight) {
             return GRASS;
         }
@@ -259,8 +860,8 @@ public class Chunk {
             return DIRT;
         }
         if (level < maxHeight - 1) {
-            int random = this.random.nextInt(2);
-            switch (random) {
+            long hash = worldSeed.hash(x, level, z, WorldSeed.MATERIAL);
+            switch ((int) (hash & 1)) {
                 case 0:
                     return DIRT;
                 default:
@@ -270,159 +871,18 @@ public class Chunk {
         return GRASS;
     }
 
-    // method: fillLevelBlocks2D
-    // purpose: perform fill for all blocks at a level that is not a boundary
-    private int fillLevelBlocks2D(int startX, int startY, int startZ,
-            Block fillBlock,
-            Block boundaryFill) {
-        int count = 0;
-        if (isBoundaryBlock2D(startX, startY, startZ)) {
-            return count;
-        }
-        Set<Vector3i> visited = new HashSet<>();
-        LinkedList<Vector3i> queue = new LinkedList<>();
-        blocks[startX][startY][startZ] = fillBlock;
-        count++;
-        queue.add(new Vector3i(startX, startY, startZ));
-        while (!queue.isEmpty()) {
-            Vector3i head = queue.removeFirst();
-            if (!visited.contains(head)) {
-                for (Vector3i neighbor : getNeighbors2D(head.x, head.y, head.z)) {
-                    if (!visited.contains(neighbor)) {
-                        if (!isBoundaryBlock2D(neighbor.x, neighbor.y, neighbor.z)) {
-                            blocks[neighbor.x][neighbor.y][neighbor.z] = fillBlock;
-                            count++;
-                            queue.push(neighbor);
-                        } else {
-                            blocks[neighbor.x][neighbor.y][neighbor.z] = boundaryFill;
-                        }
-                    }
-                }
-            }
-            visited.add(head);
-        }
-        return count;
-    }
-
-    // method: isBoundaryBlock2D
-    // purpose: check if a block is a boundary
-    private boolean isBoundaryBlock2D(int x, int y, int z) {
-        return x < 1 || z < 1 || x == SIZE - 1 || z == SIZE - 1
-                || y == maxHeight - 1
-                || // same level
-                blocks[x - 1][y][z] == null
-                || blocks[x][y][z - 1] == null
-                || blocks[x][y][z + 1] == null
-                || blocks[x + 1][y][z] == null
-                || // above level
-                blocks[x - 1][y + 1][z] != null
-                || blocks[x][y + 1][z - 1] != null
-                || blocks[x][y + 1][z + 1] != null
-                || blocks[x + 1][y + 1][z] != null;
-    }
-
     // method: isSurfaceBlock2D
-    private boolean isVisible(int x, int y, int z) {
+    boolean isVisible(int x, int y, int z) {
         return x == 0
                 || x == SIZE - 1
                 || y == 0
                 || y == maxHeight - 1
                 || z == 0
                 || z == SIZE - 1
-                || blocks[x][y][z] == null
-                || blocks[x - 1][y][z] == null
-                || blocks[x + 1][y][z] == null
-                || blocks[x][y][z - 1] == null
-                || blocks[x][y][z + 1] == null
-                || blocks[x][y + 1][z] == null;
-    }
-
-    // method: getNeighbors2D
-    // purpose: Given a block (x,y,z), return its 8 neighbor block positions
-    private List<Vector3i> getNeighbors2D(int x, int y, int z) {
-        List<Vector3i> neighbors = new LinkedList<>();
-        if (blocks[x - 1][y][z] != null) {
-            neighbors.add(new Vector3i(x - 1, y, z));
-        }
-        if (blocks[x - 1][y][z - 1] != null) {
-            neighbors.add(new Vector3i(x - 1, y, z - 1));
-        }
-        if (blocks[x][y][z - 1] != null) {
-            neighbors.add(new Vector3i(x, y, z - 1));
-        }
-        if (blocks[x + 1][y][z - 1] != null) {
-            neighbors.add(new Vector3i(x + 1, y, z - 1));
-        }
-        if (blocks[x + 1][y][z] != null) {
-            neighbors.add(new Vector3i(x + 1, y, z));
-        }
-        if (blocks[x + 1][y][z + 1] != null) {
-            neighbors.add(new Vector3i(x + 1, y, z + 1));
-        }
-        if (blocks[x][y][z + 1] != null) {
-            neighbors.add(new Vector3i(x, y, z + 1));
-        }
-        if (blocks[x - 1][y][z + 1] != null) {
-            neighbors.add(new Vector3i(x - 1, y, z + 1));
-        }
-        return neighbors;
-    }
-
-    // method: createCube
-    // purpose: Create a cube at a location
-    private float[] createCube(float x, float y, float z) {
-        int offset = LENGTH / 2;
-        return new float[]{
-            // top quad
-            offset + x, offset + y, offset + z,
-            offset + x, offset + y, -offset + z,
-            -offset + x, offset + y, -offset + z,
-            -offset + x, offset + y, offset + z,
-            // bottom face
-            offset + x, -offset + y, offset + z,
-            -offset + x, -offset + y, offset + z,
-            -offset + x, -offset + y, -offset + z,
-            offset + x, -offset + y, -offset + z,
-            // back face
-            offset + x, -offset + y, -offset + z,
-            -offset + x, -offset + y, -offset + z,
-            -offset + x, offset + y, -offset + z,
-            offset + x, offset + y, -offset + z,
-            // front face
-            offset + x, offset + y, offset + z,
-            -offset + x, offset + y, offset + z,
-            -offset + x, -offset + y, offset + z,
-            offset + x, -offset + y, offset + z,
-            // right face
-            offset + x, offset + y, -offset + z,
-            offset + x, offset + y, offset + z,
-            offset + x, -offset + y, offset + z,
-            offset + x, -offset + y, -offset + z,
-            // left face
-            -offset + x, offset + y, offset + z,
-            -offset + x, offset + y, -offset + z,
-            -offset + x, -offset + y, -offset + z,
-            -offset + x, -offset + y, offset + z
-        };
-    }
-
-    // method: createCubeVertexCol
-    // purpose: Create the color vertex array based on the cube's colors
-    private float[] createCubeVertexCol(float[] cubeColorArray) {
-        float[] cubeColors = new float[cubeColorArray.length * 4 * 6];
-        for (int i = 0; i < cubeColors.length; i++) {
-            cubeColors[i] = cubeColorArray[i % cubeColorArray.length];
-        }
-        return cubeColors;
-    }
-
-    // method: getCubeColor
-    // purpose: Returns the color of the cube
-    private float[] getCubeColor(Block block) {
-        return new float[]{1.0f, 1.0f, 1.0f};
-    }
-
-    private float[] createTexCube(float x, float y, Block.Type type) {
+                || !blocks.isEnclosed(blocks.flatIndex(x, y, z));
+    }
+
+    private static float[] createTexCube(float x, float y, Block.Type type) {
         float offset = (1024 / 16) / 1024.0f;
         switch (type) {
             case Dirt:
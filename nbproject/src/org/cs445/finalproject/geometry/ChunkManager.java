@@ -0,0 +1,827 @@
+/**
+ * *************************************************************
+ * file: ChunkManager.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Streams chunks in and out around the camera. Chunks are
+ * keyed by their chunk coordinate on the x/z plane and share one
+ * world seed so their terrain lines up.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ChunkManager {
+
+    // width of a chunk in world units
+    public static final int CHUNK_WIDTH = Chunk.SIZE * Chunk.LENGTH;
+    // how far apart a box and a block face count as touching, absorbs the
+    // rounding of positions clamped against a face
+    private static final float CONTACT = 0.001f;
+    private static final int[] SWEEP_ORDER = {1, 0, 2};
+    // faces a ray enters a block through when stepping along +x, +y, +z
+    // and -x, -y, -z
+    private static final Face[] ENTRY_FACES = {
+        Face.LEFT, Face.BOTTOM, Face.BACK, Face.RIGHT, Face.TOP, Face.FRONT
+    };
+
+    private final LongMap<Chunk> chunks;
+    // chunks being generated off the GL thread, published by update once
+    // they are done. A chunk removed here is disposed and dropped on arrival.
+    private final LongMap<Chunk> generating;
+    private final ConcurrentLinkedQueue<Generated> generated
+            = new ConcurrentLinkedQueue<>();
+    private final int originX, originY, originZ;
+    private WorldSeed worldSeed;
+    private Mesher mesher;
+    private TerrainShader shader;
+    private final DrawBatch batch = new DrawBatch();
+    private final MeshScheduler scheduler;
+
+    private int renderDistance;
+    private long memoryBudget;
+    // the most bytes a fully meshed chunk has been measured at, what a chunk
+    // about to load is assumed to cost. 0 until a chunk finished meshing.
+    private long chunkBytes;
+    private int maxLoadsPerUpdate;
+    private float preloadMargin;
+    // chunk coordinates bounding the loaded chunks, where raycasts end
+    private int minLoadedX, maxLoadedX, minLoadedZ, maxLoadedZ;
+
+    private static final Logger LOGGER
+            = Logger.getLogger(ChunkManager.class.getName());
+
+    // a chunk handed back by a generation worker, without blocks if its
+    // generation failed
+    private static class Generated {
+
+        final long key;
+        final Chunk chunk;
+        final boolean failed;
+
+        Generated(long key, Chunk chunk, boolean failed) {
+            this.key = key;
+            this.chunk = chunk;
+            this.failed = failed;
+        }
+    }
+
+    public ChunkManager(int originX, int originY, int originZ) {
+        this(originX, originY, originZ, new Random().nextLong());
+    }
+
+    public ChunkManager(int originX, int originY, int originZ, long worldSeed) {
+        this(originX, originY, originZ, worldSeed, new MeshScheduler());
+    }
+
+    // meshes through a given scheduler, the tests pass one that needs no GL
+    ChunkManager(int originX, int originY, int originZ, long worldSeed,
+            MeshScheduler scheduler) {
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        this.worldSeed = new WorldSeed(worldSeed);
+        chunks = new LongMap<>();
+        generating = new LongMap<>();
+        renderDistance = 1;
+        memoryBudget = 256L * 1024 * 1024;
+        maxLoadsPerUpdate = 1;
+        preloadMargin = CHUNK_WIDTH / 4;
+        mesher = new CulledMesher();
+        this.scheduler = scheduler;
+    }
+
+    // method: update
+    // purpose: Publish chunks the generation workers finished, start
+    // generating missing chunks near the camera and evict far ones. Missing
+    // chunks start nearest first, the one under the camera before any
+    // other, at most maxLoadsPerUpdate per call. A chunk only starts if it
+    // fits the memory budget along with the chunks still generating, or if
+    // a farther chunk can be unloaded to make room for it. Until one chunk
+    // is fully meshed its cost is unknown, so only the first one starts.
+    public void update(float cameraX, float cameraY, float cameraZ) {
+        // the camera position is the negated world position
+        float worldX = -cameraX;
+        float worldZ = -cameraZ;
+        int centerX = chunkCoord(worldX, originX);
+        int centerZ = chunkCoord(worldZ, originZ);
+
+        publishGenerated();
+        long bytes = generating.size() * chunkBytes;
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            Chunk chunk = chunks.valueAt(slot);
+            if (chunk != null) {
+                bytes += measure(chunk);
+            }
+        }
+
+        List<long[]> missing = new ArrayList<>();
+        float loadDistance = renderDistance * CHUNK_WIDTH + preloadMargin;
+        for (int cx = centerX - renderDistance - 1; cx <= centerX + renderDistance + 1; cx++) {
+            for (int cz = centerZ - renderDistance - 1; cz <= centerZ + renderDistance + 1; cz++) {
+                if (chunks.containsKey(key(cx, cz))
+                        || generating.containsKey(key(cx, cz))) {
+                    continue;
+                }
+                float distance = distanceTo(cx, cz, worldX, worldZ);
+                if (distance <= loadDistance) {
+                    missing.add(new long[]{cx, cz, (long) distance});
+                }
+            }
+        }
+        Collections.sort(missing, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                return Long.compare(a[2], b[2]);
+            }
+        });
+        for (int i = 0; i < missing.size() && i < maxLoadsPerUpdate; i++) {
+            int cx = (int) missing.get(i)[0];
+            int cz = (int) missing.get(i)[1];
+            boolean started = !chunks.isEmpty() || !generating.isEmpty();
+            if (started && chunkBytes == 0) {
+                break;
+            }
+            if (started && bytes + chunkBytes > memoryBudget) {
+                // never unload a chunk for one as far away, so the two
+                // cannot take turns being loaded
+                int slot = farthestSlot(worldX, worldZ, centerX, centerZ);
+                if (slot < 0 || distanceTo(keyX(chunks.keyAt(slot)),
+                        keyZ(chunks.keyAt(slot)), worldX, worldZ)
+                        <= distanceTo(cx, cz, worldX, worldZ)) {
+                    break;
+                }
+                bytes -= unload(chunks.keyAt(slot));
+            }
+            load(cx, cz);
+            bytes += chunkBytes;
+        }
+
+        evict(worldX, worldZ, centerX, centerZ);
+        measureLoadedBounds();
+        scheduler.uploadFinished(worldX, -cameraY, worldZ);
+    }
+
+    // method: measureLoadedBounds
+    // purpose: Find the smallest and largest chunk coordinates of the loaded
+    // chunks on each axis
+    private void measureLoadedBounds() {
+        minLoadedX = Integer.MAX_VALUE;
+        maxLoadedX = Integer.MIN_VALUE;
+        minLoadedZ = Integer.MAX_VALUE;
+        maxLoadedZ = Integer.MIN_VALUE;
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            if (chunks.valueAt(slot) != null) {
+                long key = chunks.keyAt(slot);
+                minLoadedX = Math.min(minLoadedX, keyX(key));
+                maxLoadedX = Math.max(maxLoadedX, keyX(key));
+                minLoadedZ = Math.min(minLoadedZ, keyZ(key));
+                maxLoadedZ = Math.max(maxLoadedZ, keyZ(key));
+            }
+        }
+    }
+
+    // method: render
+    // purpose: Render the loaded chunks with the terrain shader, skipping
+    // sections outside the camera's frustum. The shader is built on the
+    // first render, once the GL context is current.
+    public void render(Frustum frustum) {
+        if (shader == null) {
+            shader = new TerrainShader();
+        }
+        shader.bind();
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            Chunk chunk = chunks.valueAt(slot);
+            if (chunk != null) {
+                shader.setChunk(chunk);
+                chunk.render(batch, frustum);
+            }
+        }
+        shader.unbind();
+    }
+
+    // method: randomize
+    // purpose: Move to the next world seed and regenerate the loaded chunks
+    public void randomize() {
+        setWorldSeed(worldSeed.next().getSeed());
+    }
+
+    // method: dispose
+    // purpose: Unload every chunk, then stop the mesh workers and release
+    // the vertex buffers and the shader. Call on the GL thread before the
+    // display is destroyed.
+    public void dispose() {
+        discardGenerating();
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            if (chunks.valueAt(slot) != null) {
+                unload(chunks.keyAt(slot));
+            }
+        }
+        scheduler.shutdown();
+        if (shader != null) {
+            shader.dispose();
+            shader = null;
+        }
+    }
+
+    // method: setWorldSeed
+    // purpose: Regenerate the loaded chunks, and generate every chunk loaded
+    // afterwards, from a world seed. The loaded chunks are regenerated on the
+    // generation pool and each one is shown until its replacement arrives.
+    public void setWorldSeed(long worldSeed) {
+        this.worldSeed = new WorldSeed(worldSeed);
+        LOGGER.log(Level.INFO, "World seed: {0}", worldSeed);
+        // chunks generating from the old seed are discarded
+        discardGenerating();
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            if (chunks.valueAt(slot) != null) {
+                long key = chunks.keyAt(slot);
+                load(keyX(key), keyZ(key));
+            }
+        }
+    }
+
+    // method: overlapsBlock
+    // purpose: Returns true if a box in world coordinates overlaps a block of
+    // any loaded chunk. Chunks that are not loaded count as empty.
+    public boolean overlapsBlock(float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ) {
+        int lowX = chunkCoord(minX, originX);
+        int lowZ = chunkCoord(minZ, originZ);
+        int highX = chunkCoord(maxX, originX);
+        int highZ = chunkCoord(maxZ, originZ);
+        for (int cx = lowX; cx <= highX; cx++) {
+            for (int cz = lowZ; cz <= highZ; cz++) {
+                Chunk chunk = getChunk(cx, cz);
+                if (chunk != null && chunk.overlapsBlock(minX, minY, minZ,
+                        maxX, maxY, maxZ)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // method: moveBox
+    // purpose: Move a box, given as minX, minY, minZ, maxX, maxY, maxZ in
+    // world coordinates, by a displacement, stopping it against blocks of
+    // loaded chunks. The axes are resolved one at a time, y first, so a box
+    // blocked along one axis still slides along the others. Returns true if
+    // any axis was blocked.
+    public boolean moveBox(float[] box, float dx, float dy, float dz) {
+        float[] delta = {dx, dy, dz};
+        boolean blocked = false;
+        for (int axis : SWEEP_ORDER) {
+            if (delta[axis] == 0) {
+                continue;
+            }
+            float moved = sweep(box, axis, delta[axis]);
+            blocked |= moved != delta[axis];
+            box[axis] += moved;
+            box[axis + 3] += moved;
+        }
+        return blocked;
+    }
+
+    // method: sweep
+    // purpose: Returns how far a box can move along one axis, 0 for x, 1 for
+    // y and 2 for z, before its leading face meets a block. Every block layer
+    // the face passes is checked, so fast boxes do not tunnel through thin
+    // walls. Blocks the box is already inside do not stop it.
+    public float sweep(float[] box, int axis, float delta) {
+        float base = origin(axis) - Chunk.LENGTH / 2.0f;
+        // the box shrunk a little on the other axes, so faces it is resting
+        // against do not block it from sliding
+        float[] slab = new float[6];
+        for (int i = 0; i < 3; i++) {
+            boolean flat = box[i + 3] - box[i] <= 2 * CONTACT;
+            slab[i] = flat ? box[i] : box[i] + CONTACT;
+            slab[i + 3] = flat ? box[i + 3] : box[i + 3] - CONTACT;
+        }
+        if (delta > 0) {
+            float lead = box[axis + 3];
+            int layer = (int) Math.ceil((lead - CONTACT - base) / Chunk.LENGTH);
+            float face = base + layer * Chunk.LENGTH;
+            while (face < lead + delta) {
+                slab[axis] = face;
+                slab[axis + 3] = face + Chunk.LENGTH;
+                if (overlapsBlock(slab[0], slab[1], slab[2],
+                        slab[3], slab[4], slab[5])) {
+                    return Math.max(face - lead, 0);
+                }
+                face += Chunk.LENGTH;
+            }
+        } else {
+            float lead = box[axis];
+            int layer = (int) Math.floor((lead + CONTACT - base) / Chunk.LENGTH);
+            float face = base + layer * Chunk.LENGTH;
+            while (face > lead + delta) {
+                slab[axis] = face - Chunk.LENGTH;
+                slab[axis + 3] = face;
+                if (overlapsBlock(slab[0], slab[1], slab[2],
+                        slab[3], slab[4], slab[5])) {
+                    return Math.min(face - lead, 0);
+                }
+                face -= Chunk.LENGTH;
+            }
+        }
+        return delta;
+    }
+
+    // method: raycast
+    // purpose: Walk a ray from a world position along a direction block by
+    // block, Amanatides-Woo style, and stop at the first block of a loaded
+    // chunk within maxDistance world units. Returns true and fills the hit if
+    // a block was found, otherwise clears it. Unloaded chunks count as empty,
+    // and the walk ends once the ray leaves the chunk height or the loaded
+    // chunks for good.
+    public boolean raycast(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, RayHit hit) {
+        hit.clear();
+        if (chunks.isEmpty()) {
+            return false;
+        }
+        double length = Math.sqrt(directionX * directionX
+                + directionY * directionY + directionZ * directionZ);
+        if (!(length > 0) || Double.isInfinite(length)) {
+            return false;
+        }
+        double dirX = directionX / length;
+        double dirY = directionY / length;
+        double dirZ = directionZ / length;
+        // position in blocks, block n spans n to n + 1
+        double positionX = (originX - this.originX) / Chunk.LENGTH + 0.5;
+        double positionY = (originY - this.originY) / Chunk.LENGTH + 0.5;
+        double positionZ = (originZ - this.originZ) / Chunk.LENGTH + 0.5;
+        int blockX = (int) Math.floor(positionX);
+        int blockY = (int) Math.floor(positionY);
+        int blockZ = (int) Math.floor(positionZ);
+        int stepX = dirX > 0 ? 1 : dirX < 0 ? -1 : 0;
+        int stepY = dirY > 0 ? 1 : dirY < 0 ? -1 : 0;
+        int stepZ = dirZ > 0 ? 1 : dirZ < 0 ? -1 : 0;
+        double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : Chunk.LENGTH / Math.abs(dirX);
+        double deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : Chunk.LENGTH / Math.abs(dirY);
+        double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : Chunk.LENGTH / Math.abs(dirZ);
+        double nextX = firstCrossing(positionX, blockX, stepX, deltaX);
+        double nextY = firstCrossing(positionY, blockY, stepY, deltaY);
+        double nextZ = firstCrossing(positionZ, blockZ, stepZ, deltaZ);
+        // block bounds of the loaded chunks
+        int minBlockX = minLoadedX * Chunk.SIZE;
+        int maxBlockX = (maxLoadedX + 1) * Chunk.SIZE - 1;
+        int minBlockZ = minLoadedZ * Chunk.SIZE;
+        int maxBlockZ = (maxLoadedZ + 1) * Chunk.SIZE - 1;
+        Face face = null;
+        double distance = 0;
+        Chunk chunk = null;
+        int chunkX = 0;
+        int chunkZ = 0;
+        while (distance <= maxDistance) {
+            if (leaves(blockY, stepY, 0, Chunk.HEIGHT - 1)
+                    || leaves(blockX, stepX, minBlockX, maxBlockX)
+                    || leaves(blockZ, stepZ, minBlockZ, maxBlockZ)) {
+                break;
+            }
+            int cx = Math.floorDiv(blockX, Chunk.SIZE);
+            int cz = Math.floorDiv(blockZ, Chunk.SIZE);
+            if (chunk == null || cx != chunkX || cz != chunkZ) {
+                chunk = getChunk(cx, cz);
+                chunkX = cx;
+                chunkZ = cz;
+            }
+            if (chunk != null) {
+                Block found = chunk.findBlock(blockX - cx * Chunk.SIZE,
+                        blockY, blockZ - cz * Chunk.SIZE);
+                if (found != null) {
+                    hit.set(blockX, blockY, blockZ, face, (float) distance,
+                            found);
+                    return true;
+                }
+            }
+            if (nextX < nextY && nextX < nextZ) {
+                distance = nextX;
+                nextX += deltaX;
+                blockX += stepX;
+                face = ENTRY_FACES[stepX > 0 ? 0 : 3];
+            } else if (nextY < nextZ) {
+                distance = nextY;
+                nextY += deltaY;
+                blockY += stepY;
+                face = ENTRY_FACES[stepY > 0 ? 1 : 4];
+            } else {
+                distance = nextZ;
+                nextZ += deltaZ;
+                blockZ += stepZ;
+                face = ENTRY_FACES[stepZ > 0 ? 2 : 5];
+            }
+        }
+        return false;
+    }
+
+    // method: firstCrossing
+    // purpose: Returns the distance along a ray to the first block border it
+    // crosses on an axis, infinite if it does not move along the axis
+    private static double firstCrossing(double position, int block, int step,
+            double delta) {
+        if (step > 0) {
+            return (block + 1 - position) * delta;
+        }
+        if (step < 0) {
+            return (position - block) * delta;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    // method: leaves
+    // purpose: Returns true if a ray is past a range of blocks on an axis and
+    // not heading back into it
+    private static boolean leaves(int block, int step, int min, int max) {
+        return (block < min && step <= 0) || (block > max && step >= 0);
+    }
+
+    // method: raycast
+    // purpose: Cast many rays, packed as origin x, y, z then direction x, y,
+    // z in the rays array, into the matching entries of hits. Returns how
+    // many of them hit a block.
+    public int raycast(float[] rays, int count, float maxDistance,
+            RayHit[] hits) {
+        int hitCount = 0;
+        for (int i = 0; i < count; i++) {
+            int ray = i * 6;
+            if (raycast(rays[ray], rays[ray + 1], rays[ray + 2],
+                    rays[ray + 3], rays[ray + 4], rays[ray + 5],
+                    maxDistance, hits[i])) {
+                hitCount++;
+            }
+        }
+        return hitCount;
+    }
+
+    // method: getBlock
+    // purpose: Returns the block at a world coordinate, or null for air and
+    // chunks that are not loaded
+    public Block getBlock(float worldX, float worldY, float worldZ) {
+        Chunk chunk = getChunk(chunkCoord(worldX, originX),
+                chunkCoord(worldZ, originZ));
+        return chunk == null ? null : chunk.getBlock(worldX, worldY, worldZ);
+    }
+
+    // method: setBlock
+    // purpose: Place a block at a world coordinate, null breaks it. Only the
+    // sections around the block are remeshed. Returns false if the
+    // coordinate is not in a loaded chunk.
+    public boolean setBlock(float worldX, float worldY, float worldZ,
+            Block block) {
+        Chunk chunk = getChunk(chunkCoord(worldX, originX),
+                chunkCoord(worldZ, originZ));
+        return chunk != null && chunk.setBlock(worldX, worldY, worldZ, block);
+    }
+
+    // method: getBlock
+    // purpose: Returns the block at a block coordinate counted from the world
+    // origin, as reported by raycast
+    public Block getBlock(int blockX, int blockY, int blockZ) {
+        return getBlock(blockCenter(blockX, originX),
+                blockCenter(blockY, originY), blockCenter(blockZ, originZ));
+    }
+
+    // method: setBlock
+    // purpose: Place a block at a block coordinate counted from the world
+    // origin, as reported by raycast
+    public boolean setBlock(int blockX, int blockY, int blockZ, Block block) {
+        return setBlock(blockCenter(blockX, originX),
+                blockCenter(blockY, originY), blockCenter(blockZ, originZ),
+                block);
+    }
+
+    // method: hasBlock
+    // purpose: Returns true if a world coordinate is inside a block of a
+    // loaded chunk
+    public boolean hasBlock(float worldX, float worldY, float worldZ) {
+        Chunk chunk = getChunk(chunkCoord(worldX, originX),
+                chunkCoord(worldZ, originZ));
+        return chunk != null && chunk.hasBlock(worldX, worldY, worldZ);
+    }
+
+    // method: getChunk
+    // purpose: Returns the loaded chunk at a chunk coordinate, or null
+    public Chunk getChunk(int chunkX, int chunkZ) {
+        return chunks.get(key(chunkX, chunkZ));
+    }
+
+    // method: getMemoryBytes
+    // purpose: Returns the estimated bytes held by all loaded chunks
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            Chunk chunk = chunks.valueAt(slot);
+            if (chunk != null) {
+                bytes += chunk.getMemoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    public int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    public long getWorldSeed() {
+        return worldSeed.getSeed();
+    }
+
+    // method: setMesher
+    // purpose: Set the mesher of every loaded and future chunk, remeshing
+    // the loaded ones right away
+    public void setMesher(Mesher mesher) {
+        this.mesher = mesher;
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            Chunk chunk = chunks.valueAt(slot);
+            if (chunk != null) {
+                chunk.setMesher(mesher);
+                chunk.rebuildDirtySections();
+            }
+        }
+    }
+
+    public Mesher getMesher() {
+        return mesher;
+    }
+
+    // method: setRenderDistance
+    // purpose: Set how many chunks are kept loaded on each side of the
+    // camera's chunk
+    public void setRenderDistance(int renderDistance) {
+        this.renderDistance = Math.max(0, renderDistance);
+    }
+
+    public int getRenderDistance() {
+        return renderDistance;
+    }
+
+    // method: setMemoryBudget
+    // purpose: Set the number of bytes loaded chunks may hold before the
+    // farthest ones are evicted
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    // method: setMaxLoadsPerUpdate
+    // purpose: Set how many chunks, the camera's included, may start
+    // generating in a single update
+    public void setMaxLoadsPerUpdate(int maxLoadsPerUpdate) {
+        this.maxLoadsPerUpdate = Math.max(0, maxLoadsPerUpdate);
+    }
+
+    // method: setUploadBudget
+    // purpose: Set how many microseconds each update may spend uploading
+    // meshes finished by the mesh workers
+    public void setUploadBudget(long budgetMicros) {
+        scheduler.getUploads().setBudgetMicros(budgetMicros);
+    }
+
+    public long getUploadBudget() {
+        return scheduler.getUploads().getBudgetMicros();
+    }
+
+    // method: getBufferArena
+    // purpose: Returns the arena section meshes are uploaded into, for its
+    // live, capacity and fragmentation figures
+    public BufferArena getBufferArena() {
+        return scheduler.getUploads().getArena();
+    }
+
+    // method: setPreloadMargin
+    // purpose: Set how far past the render distance, in world units, chunks
+    // start loading ahead of the camera
+    public void setPreloadMargin(float preloadMargin) {
+        this.preloadMargin = Math.max(0, preloadMargin);
+    }
+
+    // method: load
+    // purpose: Start generating the chunk at a chunk coordinate on the
+    // generation pool. update publishes it once it is done.
+    private void load(int chunkX, int chunkZ) {
+        final long key = key(chunkX, chunkZ);
+        final Chunk chunk = new Chunk(
+                originX + chunkX * CHUNK_WIDTH,
+                originY,
+                originZ + chunkZ * CHUNK_WIDTH,
+                mesher, scheduler);
+        final WorldSeed seed = worldSeed;
+        generating.put(key, chunk);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                boolean failed = true;
+                try {
+                    // skip chunks discarded while they waited in the pool
+                    if (!chunk.isDisposed()) {
+                        chunk.generateBlocks(seed);
+                    }
+                    failed = false;
+                } catch (Throwable e) {
+                    LOGGER.log(Level.SEVERE, "Failed to generate chunk", e);
+                } finally {
+                    generated.offer(new Generated(key, chunk, failed));
+                }
+            }
+        };
+        ForkJoinPool pool = Chunk.getGenerationPool();
+        if (pool == null) {
+            task.run();
+        } else {
+            pool.execute(task);
+        }
+    }
+
+    // method: discardGenerating
+    // purpose: Drop every chunk still generating. They hold no vertex
+    // buffers, so disposing them only tells the workers to skip them.
+    private void discardGenerating() {
+        for (int slot = 0; slot < generating.capacity(); slot++) {
+            Chunk chunk = generating.valueAt(slot);
+            if (chunk != null) {
+                chunk.dispose();
+            }
+        }
+        generating.clear();
+    }
+
+    // method: publishGenerated
+    // purpose: Move the chunks the generation workers finished into the
+    // loaded chunks, replacing any chunk regenerated from a new seed, and
+    // queue their sections for meshing. Chunks no longer wanted, and failed
+    // ones, are dropped and generate again if missing.
+    private void publishGenerated() {
+        Generated result;
+        while ((result = generated.poll()) != null) {
+            boolean wanted = generating.get(result.key) == result.chunk;
+            if (wanted) {
+                generating.remove(result.key);
+            }
+            if (!wanted || result.failed) {
+                result.chunk.dispose();
+                if (wanted && chunks.containsKey(result.key)) {
+                    // drop the chunk of the old seed, it generates again
+                    unload(result.key);
+                }
+                continue;
+            }
+            if (chunks.containsKey(result.key)) {
+                unload(result.key);
+            }
+            chunks.put(result.key, result.chunk);
+            result.chunk.rebuildDirtySections();
+            LOGGER.log(Level.INFO, "Loaded chunk ({0}, {1}), {2} loaded",
+                    new Object[]{keyX(result.key), keyZ(result.key),
+                        chunks.size()});
+        }
+    }
+
+    // method: unload
+    // purpose: Dispose of the chunk with a key and return the bytes it held
+    private long unload(long key) {
+        Chunk chunk = chunks.remove(key);
+        long bytes = measure(chunk);
+        chunk.dispose();
+        return bytes;
+    }
+
+    // method: measure
+    // purpose: Returns the bytes a chunk holds, and remembers them as the
+    // cost of a chunk once it is fully meshed
+    private long measure(Chunk chunk) {
+        long bytes = chunk.getMemoryBytes();
+        if (chunk.isMeshed()) {
+            chunkBytes = Math.max(chunkBytes, bytes);
+        }
+        return bytes;
+    }
+
+    // method: evict
+    // purpose: Unload chunks past the render distance, then the farthest
+    // chunks until the memory budget is met. The camera's chunk is kept.
+    private void evict(float worldX, float worldZ, int centerX, int centerZ) {
+        // one chunk of slack so crossing a border back and forth never
+        // unloads and regenerates the same chunk
+        float unloadDistance = (renderDistance + 1) * CHUNK_WIDTH + preloadMargin;
+        long bytes = 0;
+        // removing leaves the other slots in place, so the walk goes on
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            Chunk chunk = chunks.valueAt(slot);
+            if (chunk == null) {
+                continue;
+            }
+            long key = chunks.keyAt(slot);
+            if (distanceTo(keyX(key), keyZ(key), worldX, worldZ) > unloadDistance) {
+                unload(key);
+            } else {
+                bytes += measure(chunk);
+            }
+        }
+        for (int slot = 0; slot < generating.capacity(); slot++) {
+            if (generating.valueAt(slot) == null) {
+                continue;
+            }
+            long key = generating.keyAt(slot);
+            if (distanceTo(keyX(key), keyZ(key), worldX, worldZ) > unloadDistance) {
+                generating.remove(key).dispose();
+            }
+        }
+        while (bytes > memoryBudget) {
+            int slot = farthestSlot(worldX, worldZ, centerX, centerZ);
+            if (slot < 0) {
+                break;
+            }
+            bytes -= unload(chunks.keyAt(slot));
+        }
+    }
+
+    // method: farthestSlot
+    // purpose: Returns the slot of the loaded chunk farthest from a world
+    // position, other than the camera's chunk, or -1 if there is none
+    private int farthestSlot(float worldX, float worldZ, int centerX,
+            int centerZ) {
+        int farthest = -1;
+        float farthestDistance = -1;
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            if (chunks.valueAt(slot) == null) {
+                continue;
+            }
+            long key = chunks.keyAt(slot);
+            if (keyX(key) == centerX && keyZ(key) == centerZ) {
+                continue;
+            }
+            float distance = distanceTo(keyX(key), keyZ(key), worldX, worldZ);
+            if (distance > farthestDistance) {
+                farthest = slot;
+                farthestDistance = distance;
+            }
+        }
+        return farthest;
+    }
+
+    // method: origin
+    // purpose: Returns the world origin along an axis, 0 for x, 1 for y and 2
+    // for z
+    private int origin(int axis) {
+        return axis == 0 ? originX : axis == 1 ? originY : originZ;
+    }
+
+    // method: distanceTo
+    // purpose: Returns the distance on the x/z plane from a world position to
+    // the nearest point of a chunk
+    private float distanceTo(int chunkX, int chunkZ, float worldX, float worldZ) {
+        float half = Chunk.LENGTH / 2.0f;
+        float minX = originX + chunkX * CHUNK_WIDTH - half;
+        float minZ = originZ + chunkZ * CHUNK_WIDTH - half;
+        float dx = Math.max(Math.max(minX - worldX, worldX - (minX + CHUNK_WIDTH)), 0);
+        float dz = Math.max(Math.max(minZ - worldZ, worldZ - (minZ + CHUNK_WIDTH)), 0);
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
+    // method: chunkCoord
+    // purpose: Returns the chunk coordinate holding a world coordinate.
+    // Blocks are centered on their position, so a chunk starts half a block
+    // before its origin.
+    private static int chunkCoord(float world, int origin) {
+        return (int) Math.floor((world - origin + Chunk.LENGTH / 2.0f) / CHUNK_WIDTH);
+    }
+
+    // method: blockCenter
+    // purpose: Returns the world coordinate of the center of a block
+    private static float blockCenter(int block, int origin) {
+        return origin + block * Chunk.LENGTH;
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int keyZ(long key) {
+        return (int) key;
+    }
+}
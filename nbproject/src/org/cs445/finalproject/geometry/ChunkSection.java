@@ -0,0 +1,176 @@
+/**
+ * *************************************************************
+ * file: ChunkSection.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: A 16x16x16 sub-volume of a Chunk with its own vertex
+ * buffers. Only sections marked dirty are remeshed and uploaded.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import static org.lwjgl.opengl.GL15.*;
+
+public class ChunkSection {
+
+    private final int x, y, z;
+    private final int sizeX, sizeY, sizeZ;
+    private boolean dirty;
+    // bumped on every change, meshes built from an older version are stale
+    private int version;
+    private int scheduledVersion = -1;
+    private int vboHandle;
+    // the arena range drawn from instead of an own buffer, or null
+    private BufferArena.Range range;
+    private int firstVertex;
+    private int vertexCount;
+
+    public ChunkSection(int x, int y, int z, int sizeX, int sizeY, int sizeZ) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        dirty = true;
+    }
+
+    // method: addTo
+    // purpose: Queue the uploaded vertices of the section on a draw batch
+    void addTo(DrawBatch batch) {
+        batch.add(vboHandle, firstVertex, vertexCount);
+    }
+
+    // method: upload
+    // purpose: Replace the section's vertex data, packed as VertexFormat.
+    // The buffer is created on the first upload and reused afterwards.
+    public void upload(ByteBuffer vertices, int vertexCount) {
+        releaseRange();
+        if (vboHandle == 0) {
+            vboHandle = glGenBuffers();
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, vboHandle);
+        glBufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        this.vertexCount = vertexCount;
+        dirty = false;
+    }
+
+    // method: replaceRange
+    // purpose: Draw from an arena range already filled with a mesh of the
+    // current version, null for an empty mesh. The previous range, or the
+    // section's own buffer, is released.
+    void replaceRange(BufferArena.Range range, int vertexCount) {
+        releaseRange();
+        if (vboHandle != 0) {
+            glDeleteBuffers(vboHandle);
+        }
+        this.range = range;
+        vboHandle = range == null ? 0 : range.getHandle();
+        firstVertex = range == null ? 0 : range.getOffset() / VertexFormat.BYTES;
+        this.vertexCount = vertexCount;
+        dirty = false;
+    }
+
+    // method: releaseRange
+    // purpose: Give the arena range back, leaving the section without a
+    // buffer
+    private void releaseRange() {
+        if (range != null) {
+            range.release();
+            range = null;
+            vboHandle = 0;
+            firstVertex = 0;
+        }
+    }
+
+    // method: dispose
+    // purpose: Release the section's vertex buffer
+    public void dispose() {
+        releaseRange();
+        if (vboHandle != 0) {
+            glDeleteBuffers(vboHandle);
+            vboHandle = 0;
+        }
+        vertexCount = 0;
+        dirty = true;
+    }
+
+    // method: markDirty
+    // purpose: Flag the section to be remeshed on the next rebuild
+    public void markDirty() {
+        dirty = true;
+        version++;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    // method: isScheduled
+    // purpose: Returns true if the current version is already queued for
+    // meshing on a worker
+    public boolean isScheduled() {
+        return scheduledVersion == version;
+    }
+
+    // method: markScheduled
+    // purpose: Record that the current version was queued, returns it
+    int markScheduled() {
+        scheduledVersion = version;
+        return version;
+    }
+
+    // method: clearScheduled
+    // purpose: Forget that a version was queued, after its meshing failed,
+    // so the next rebuild queues the section again
+    void clearScheduled(int version) {
+        if (scheduledVersion == version) {
+            scheduledVersion = -1;
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    // method: getMemoryBytes
+    // purpose: Returns the bytes of vertex data uploaded for the section
+    public long getMemoryBytes() {
+        return (long) vertexCount * VertexFormat.BYTES;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * *************************************************************
+ * file: CulledMesher.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Emits only the block faces that touch air or the border of
+ * the chunk
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class CulledMesher implements Mesher {
+
+    private static final Face[] FACES = Face.values();
+
+    @Override
+    public void mesh(Chunk chunk, ChunkSection section, MeshBuilder builder) {
+        int maxX = section.getX() + section.getSizeX();
+        int maxY = section.getY() + section.getSizeY();
+        int maxZ = section.getZ() + section.getSizeZ();
+        for (int x = section.getX(); x < maxX; x++) {
+            for (int z = section.getZ(); z < maxZ; z++) {
+                for (int y = section.getY(); y < maxY; y++) {
+                    if (!chunk.isSolid(x, y, z)) {
+                        continue;
+                    }
+                    Block block = chunk.blockAt(x, y, z);
+                    for (Face face : FACES) {
+                        if (chunk.isExposed(x, y, z, face)) {
+                            builder.putFace(block, face, x, y, z);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
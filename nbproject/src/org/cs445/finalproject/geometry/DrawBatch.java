@@ -0,0 +1,128 @@
+/**
+ * *************************************************************
+ * file: DrawBatch.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Collects the (first, count) vertex ranges of sections and
+ * draws them with one glMultiDrawArrays per vertex buffer, after setting
+ * the attribute pointers once. Ranges that follow each other in a
+ * buffer are merged into one.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import org.lwjgl.BufferUtils;
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL14.*;
+import static org.lwjgl.opengl.GL15.*;
+
+public class DrawBatch {
+
+    private static final int INITIAL_RANGES = 64;
+
+    // one entry per vertex buffer added since the last draw
+    private int[] handles = new int[4];
+    private IntBuffer[] firsts = new IntBuffer[4];
+    private IntBuffer[] counts = new IntBuffer[4];
+    private int bufferCount;
+    private int drawCalls;
+    private int rangesDrawn;
+
+    // method: add
+    // purpose: Queue a range of vertices of a buffer. A range starting where
+    // the last one of the same buffer ended extends it.
+    public void add(int handle, int first, int count) {
+        if (count == 0) {
+            return;
+        }
+        int i = indexOf(handle);
+        IntBuffer starts = firsts[i];
+        IntBuffer lengths = counts[i];
+        int last = starts.position() - 1;
+        if (last >= 0 && starts.get(last) + lengths.get(last) == first) {
+            lengths.put(last, lengths.get(last) + count);
+            return;
+        }
+        if (!starts.hasRemaining()) {
+            firsts[i] = starts = grow(starts);
+            counts[i] = lengths = grow(lengths);
+        }
+        starts.put(first);
+        lengths.put(count);
+    }
+
+    // method: draw
+    // purpose: Draw every queued range, one call per buffer, and empty the
+    // batch
+    public void draw() {
+        drawCalls = 0;
+        rangesDrawn = 0;
+        for (int i = 0; i < bufferCount; i++) {
+            IntBuffer first = firsts[i];
+            IntBuffer count = counts[i];
+            if (first.position() == 0) {
+                continue;
+            }
+            first.flip();
+            count.flip();
+            glBindBuffer(GL_ARRAY_BUFFER, handles[i]);
+            VertexFormat.setPointers();
+            glMultiDrawArrays(GL_QUADS, first, count);
+            drawCalls++;
+            rangesDrawn += first.limit();
+            first.clear();
+            count.clear();
+        }
+        bufferCount = 0;
+    }
+
+    // method: getDrawCalls
+    // purpose: Returns the number of draw calls the last draw made
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    // method: getRangesDrawn
+    // purpose: Returns the number of ranges, after merging, the last draw
+    // passed to those calls
+    public int getRangesDrawn() {
+        return rangesDrawn;
+    }
+
+    // method: indexOf
+    // purpose: Returns the entry of a buffer, adding one the first time it
+    // is seen since the last draw. There are only ever a few buffers.
+    private int indexOf(int handle) {
+        for (int i = 0; i < bufferCount; i++) {
+            if (handles[i] == handle) {
+                return i;
+            }
+        }
+        if (bufferCount == handles.length) {
+            int length = handles.length * 2;
+            handles = Arrays.copyOf(handles, length);
+            firsts = Arrays.copyOf(firsts, length);
+            counts = Arrays.copyOf(counts, length);
+        }
+        if (firsts[bufferCount] == null) {
+            firsts[bufferCount] = BufferUtils.createIntBuffer(INITIAL_RANGES);
+            counts[bufferCount] = BufferUtils.createIntBuffer(INITIAL_RANGES);
+        }
+        handles[bufferCount] = handle;
+        return bufferCount++;
+    }
+
+    private static IntBuffer grow(IntBuffer buffer) {
+        IntBuffer larger = BufferUtils.createIntBuffer(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * *************************************************************
+ * file: Face.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: The six faces of a Block, in the order their quads are
+ * laid out by the MeshBuilder edge table and the texture coordinate
+ * arrays
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public enum Face {
+    TOP(0, 1, 0),
+    BOTTOM(0, -1, 0),
+    BACK(0, 0, -1),
+    FRONT(0, 0, 1),
+    RIGHT(1, 0, 0),
+    LEFT(-1, 0, 0);
+
+    private final int dx, dy, dz;
+
+    Face(int dx, int dy, int dz) {
+        this.dx = dx;
+        this.dy = dy;
+        this.dz = dz;
+    }
+
+    // method: getDx
+    // purpose: Returns the x step to the neighbour this face touches
+    public int getDx() {
+        return dx;
+    }
+
+    // method: getDy
+    // purpose: Returns the y step to the neighbour this face touches
+    public int getDy() {
+        return dy;
+    }
+
+    // method: getDz
+    // purpose: Returns the z step to the neighbour this face touches
+    public int getDz() {
+        return dz;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * *************************************************************
+ * file: Frustum.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: The six world-space planes of the camera's view volume,
+ * built from the same perspective, rotations and translation the GL
+ * matrices use, without reading them back from GL. Boxes entirely
+ * outside any plane can be skipped when rendering.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.Arrays;
+
+public class Frustum {
+
+    private static final int PLANES = 6;
+
+    // row-major perspective matrix, as gluPerspective builds it
+    private final float[] projection = new float[16];
+    // a, b, c, d per plane, a point is inside when a*x + b*y + c*z + d >= 0
+    private final float[] planes = new float[PLANES * 4];
+
+    public Frustum() {
+        setPerspective(90.0f, 1.0f, 0.1f, 100.0f);
+    }
+
+    // method: setPerspective
+    // purpose: Set the projection, with the arguments of gluPerspective. Call
+    // setView afterwards to update the planes.
+    public void setPerspective(float fovY, float aspect, float near,
+            float far) {
+        float f = (float) (1.0 / Math.tan(Math.toRadians(fovY) / 2.0));
+        Arrays.fill(projection, 0.0f);
+        projection[0] = f / aspect;
+        projection[5] = f;
+        projection[10] = (far + near) / (near - far);
+        projection[11] = 2.0f * far * near / (near - far);
+        projection[14] = -1.0f;
+    }
+
+    // method: setView
+    // purpose: Rebuild the planes for a camera rotated by pitch around X,
+    // then yaw around Y, in degrees, and translated by a position. The
+    // position is the one passed to glTranslatef, the negated world
+    // position of the eye.
+    public void setView(float cameraX, float cameraY, float cameraZ,
+            float yaw, float pitch) {
+        double p = Math.toRadians(pitch);
+        double y = Math.toRadians(yaw);
+        float sp = (float) Math.sin(p), cp = (float) Math.cos(p);
+        float sy = (float) Math.sin(y), cy = (float) Math.cos(y);
+        // the rotation part of Rx(pitch) * Ry(yaw), row-major
+        float[] view = {
+            cy, 0.0f, sy, 0.0f,
+            sp * sy, cp, -sp * cy, 0.0f,
+            -cp * sy, sp, cp * cy, 0.0f,
+            0.0f, 0.0f, 0.0f, 1.0f
+        };
+        // then the translation, applied to points first
+        for (int row = 0; row < 3; row++) {
+            view[row * 4 + 3] = view[row * 4] * cameraX
+                    + view[row * 4 + 1] * cameraY
+                    + view[row * 4 + 2] * cameraZ;
+        }
+        float[] clip = new float[16];
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                float sum = 0.0f;
+                for (int k = 0; k < 4; k++) {
+                    sum += projection[row * 4 + k] * view[k * 4 + col];
+                }
+                clip[row * 4 + col] = sum;
+            }
+        }
+        // left, right, bottom, top, near and far: w + x, w - x and so on
+        for (int i = 0; i < PLANES; i++) {
+            int row = i / 2;
+            float sign = i % 2 == 0 ? 1.0f : -1.0f;
+            float a = clip[12] + sign * clip[row * 4];
+            float b = clip[13] + sign * clip[row * 4 + 1];
+            float c = clip[14] + sign * clip[row * 4 + 2];
+            float d = clip[15] + sign * clip[row * 4 + 3];
+            float length = (float) Math.sqrt(a * a + b * b + c * c);
+            planes[i * 4] = a / length;
+            planes[i * 4 + 1] = b / length;
+            planes[i * 4 + 2] = c / length;
+            planes[i * 4 + 3] = d / length;
+        }
+    }
+
+    // method: containsPoint
+    // purpose: Returns true if a world position is inside every plane
+    public boolean containsPoint(float x, float y, float z) {
+        for (int i = 0; i < planes.length; i += 4) {
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z
+                    + planes[i + 3] < 0.0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // method: intersectsBox
+    // purpose: Returns false if a world-space box is entirely outside one of
+    // the planes. Boxes outside the frustum near its corners may still
+    // return true, which only costs drawing them.
+    public boolean intersectsBox(float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ) {
+        for (int i = 0; i < planes.length; i += 4) {
+            float a = planes[i], b = planes[i + 1], c = planes[i + 2];
+            // the corner furthest along the plane's normal
+            float x = a >= 0.0f ? maxX : minX;
+            float y = b >= 0.0f ? maxY : minY;
+            float z = c >= 0.0f ? maxZ : minZ;
+            if (a * x + b * y + c * z + planes[i + 3] < 0.0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
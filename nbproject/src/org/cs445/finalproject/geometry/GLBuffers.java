@@ -0,0 +1,44 @@
+/**
+ * *************************************************************
+ * file: GLBuffers.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: GpuBuffers on OpenGL array buffers. Must be used on the
+ * thread that owns the GL context.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import static org.lwjgl.opengl.GL15.*;
+
+public class GLBuffers implements GpuBuffers {
+
+    @Override
+    public int create(int bytes) {
+        int handle = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, handle);
+        glBufferData(GL_ARRAY_BUFFER, bytes, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        return handle;
+    }
+
+    @Override
+    public void write(int handle, long offset, ByteBuffer data) {
+        glBindBuffer(GL_ARRAY_BUFFER, handle);
+        glBufferSubData(GL_ARRAY_BUFFER, offset, data);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    @Override
+    public void delete(int handle) {
+        if (handle != 0) {
+            glDeleteBuffers(handle);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * *************************************************************
+ * file: GpuBuffers.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: The vertex buffer calls the upload scheduler makes, kept
+ * behind an interface so the scheduling can run without a GL context.
+ * GLBuffers is the implementation the game uses.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+
+public interface GpuBuffers {
+
+    // method: create
+    // purpose: Returns a new vertex buffer with room for a number of bytes,
+    // contents undefined
+    int create(int bytes);
+
+    // method: write
+    // purpose: Copy the remaining bytes of data into a buffer at an offset
+    void write(int handle, long offset, ByteBuffer data);
+
+    // method: delete
+    // purpose: Release a buffer, 0 is ignored
+    void delete(int handle);
+}
@@ -0,0 +1,153 @@
+/**
+ * *************************************************************
+ * file: GreedyMesher.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Emits exposed faces like CulledMesher, but merges adjacent
+ * faces of the same block type and direction into maximal rectangles.
+ * Texture coordinates count tiles across the rectangle so the shader
+ * repeats the tile once per block.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class GreedyMesher implements Mesher {
+
+    private static final Face[] FACES = Face.values();
+
+    private final int[] mask
+            = new int[BlockStorage.SECTION_SIZE * BlockStorage.SECTION_SIZE];
+    private final int[] min = new int[3];
+    private final int[] size = new int[3];
+    private final int[] low = new int[3];
+    private final int[] high = new int[3];
+
+    // method: mesh
+    // purpose: Sweep every slice of the section for each face direction and
+    // merge its exposed faces
+    @Override
+    public void mesh(Chunk chunk, ChunkSection section, MeshBuilder builder) {
+        min[0] = section.getX();
+        min[1] = section.getY();
+        min[2] = section.getZ();
+        size[0] = section.getSizeX();
+        size[1] = section.getSizeY();
+        size[2] = section.getSizeZ();
+        for (Face face : FACES) {
+            int n = normalAxis(face);
+            int a = (n + 1) % 3;
+            int b = (n + 2) % 3;
+            for (int d = 0; d < size[n]; d++) {
+                fillMask(chunk, face, n, a, b, d);
+                for (int j = 0; j < size[b]; j++) {
+                    for (int i = 0; i < size[a];) {
+                        int id = mask[j * size[a] + i];
+                        if (id == BlockStorage.AIR) {
+                            i++;
+                            continue;
+                        }
+                        int w = 1;
+                        while (i + w < size[a] && mask[j * size[a] + i + w] == id) {
+                            w++;
+                        }
+                        int h = 1;
+                        grow:
+                        while (j + h < size[b]) {
+                            for (int k = 0; k < w; k++) {
+                                if (mask[(j + h) * size[a] + i + k] != id) {
+                                    break grow;
+                                }
+                            }
+                            h++;
+                        }
+                        for (int l = 0; l < h; l++) {
+                            for (int k = 0; k < w; k++) {
+                                mask[(j + l) * size[a] + i + k] = BlockStorage.AIR;
+                            }
+                        }
+                        emit(chunk.blockAt(cellX(n, a, d, i, j),
+                                cellY(n, a, d, i, j),
+                                cellZ(n, a, d, i, j)),
+                                face, n, a, d, i, j, w, h, builder);
+                        i += w;
+                    }
+                }
+            }
+        }
+    }
+
+    // method: forWorker
+    // purpose: Returns a new greedy mesher, the scratch arrays of this one
+    // cannot be shared between threads
+    @Override
+    public Mesher forWorker() {
+        return new GreedyMesher();
+    }
+
+    // method: fillMask
+    // purpose: Record the block id of every exposed face in one slice, or
+    // air where no face is drawn
+    private void fillMask(Chunk chunk, Face face, int n, int a, int b, int d) {
+        for (int j = 0; j < size[b]; j++) {
+            for (int i = 0; i < size[a]; i++) {
+                int x = cellX(n, a, d, i, j);
+                int y = cellY(n, a, d, i, j);
+                int z = cellZ(n, a, d, i, j);
+                int id = BlockStorage.AIR;
+                if (chunk.isSolid(x, y, z) && chunk.isExposed(x, y, z, face)) {
+                    id = chunk.blockAt(x, y, z).getTypeId() + 1;
+                }
+                mask[j * size[a] + i] = id;
+            }
+        }
+    }
+
+    // method: emit
+    // purpose: Write one merged quad covering w by h faces
+    private void emit(Block block, Face face, int n, int a, int d,
+            int i, int j, int w, int h, MeshBuilder builder) {
+        for (int axis = 0; axis < 3; axis++) {
+            if (axis == n) {
+                low[axis] = min[axis] + d;
+                high[axis] = low[axis] + 1;
+            } else if (axis == a) {
+                low[axis] = min[axis] + i;
+                high[axis] = low[axis] + w;
+            } else {
+                low[axis] = min[axis] + j;
+                high[axis] = low[axis] + h;
+            }
+        }
+        builder.putQuad(block, face, low[0], low[1], low[2],
+                high[0], high[1], high[2]);
+    }
+
+    // method: normalAxis
+    // purpose: Returns the axis a face points along, 0 for x, 1 for y, 2 for z
+    private static int normalAxis(Face face) {
+        if (face.getDx() != 0) {
+            return 0;
+        }
+        if (face.getDy() != 0) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private int cellX(int n, int a, int d, int i, int j) {
+        return min[0] + (n == 0 ? d : a == 0 ? i : j);
+    }
+
+    private int cellY(int n, int a, int d, int i, int j) {
+        return min[1] + (n == 1 ? d : a == 1 ? i : j);
+    }
+
+    private int cellZ(int n, int a, int d, int i, int j) {
+        return min[2] + (n == 2 ? d : a == 2 ? i : j);
+    }
+}
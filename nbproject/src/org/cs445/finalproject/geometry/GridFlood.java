@@ -0,0 +1,130 @@
+/**
+ * *************************************************************
+ * file: GridFlood.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Breadth-first flood fill over a box of cells. Cells are
+ * packed into one int, the queue is an int ring buffer and visited
+ * cells are bits of a long array, so a traversal allocates nothing and
+ * the same instance can be reused for any number of fills.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.Arrays;
+
+public class GridFlood {
+
+    public interface Visitor {
+
+        // method: visit
+        // purpose: Called once for each cell a fill reaches. Returns true to
+        // continue the fill through the cell, false to stop at it.
+        boolean visit(int cell);
+    }
+
+    private final int sizeX, sizeY, sizeZ;
+    private final long[] visited;
+    private final IntQueue queue;
+
+    public GridFlood(int sizeX, int sizeY, int sizeZ) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        int cells = sizeX * sizeY * sizeZ;
+        visited = new long[(cells + 63) >> 6];
+        queue = new IntQueue(cells);
+    }
+
+    // method: clear
+    // purpose: Forget every visited cell
+    public void clear() {
+        Arrays.fill(visited, 0L);
+        queue.clear();
+    }
+
+    // method: fill
+    // purpose: Visit the cells reachable from a start cell by the given
+    // steps, without revisiting cells seen since the last clear. The start
+    // cell itself is marked but not passed to the visitor. Returns the
+    // number of cells the fill continued through.
+    public int fill(int start, Face[] steps, Visitor visitor) {
+        mark(start);
+        queue.offer(start);
+        int filled = 0;
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            int x = getX(cell);
+            int y = getY(cell);
+            int z = getZ(cell);
+            for (Face step : steps) {
+                int nx = x + step.getDx();
+                int ny = y + step.getDy();
+                int nz = z + step.getDz();
+                if (!contains(nx, ny, nz)) {
+                    continue;
+                }
+                int neighbor = pack(nx, ny, nz);
+                if (isVisited(neighbor)) {
+                    continue;
+                }
+                mark(neighbor);
+                if (visitor.visit(neighbor)) {
+                    queue.offer(neighbor);
+                    filled++;
+                }
+            }
+        }
+        return filled;
+    }
+
+    // method: mark
+    // purpose: Mark a cell visited so no fill enters it before the next clear
+    public void mark(int cell) {
+        visited[cell >> 6] |= 1L << cell;
+    }
+
+    public boolean isVisited(int cell) {
+        return (visited[cell >> 6] & (1L << cell)) != 0;
+    }
+
+    // method: pack
+    // purpose: Returns the cell of a coordinate, x major and z minor
+    public int pack(int x, int y, int z) {
+        return (x * sizeY + y) * sizeZ + z;
+    }
+
+    public int getX(int cell) {
+        return cell / (sizeY * sizeZ);
+    }
+
+    public int getY(int cell) {
+        return cell / sizeZ % sizeY;
+    }
+
+    public int getZ(int cell) {
+        return cell % sizeZ;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0
+                && x < sizeX && y < sizeY && z < sizeZ;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * *************************************************************
+ * file: IntHistogram.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Counts of small non-negative ints, such as block levels.
+ * Doubles as a sorted set of the values seen, without boxing them.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.Arrays;
+
+public class IntHistogram {
+
+    private final int[] counts;
+    private int distinct;
+    private int total;
+
+    // method: IntHistogram
+    // purpose: Create a histogram of the values 0 to size - 1
+    public IntHistogram(int size) {
+        counts = new int[size];
+    }
+
+    // method: add
+    // purpose: Count one occurrence of a value
+    public void add(int value) {
+        if (counts[value]++ == 0) {
+            distinct++;
+        }
+        total++;
+    }
+
+    public int count(int value) {
+        return counts[value];
+    }
+
+    public boolean contains(int value) {
+        return counts[value] != 0;
+    }
+
+    // method: distinct
+    // purpose: Returns how many different values were counted
+    public int distinct() {
+        return distinct;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    // method: min
+    // purpose: Returns the smallest value counted, or -1 if none
+    public int min() {
+        return next(0);
+    }
+
+    // method: max
+    // purpose: Returns the largest value counted, or -1 if none
+    public int max() {
+        for (int value = counts.length - 1; value >= 0; value--) {
+            if (counts[value] != 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    // method: next
+    // purpose: Returns the smallest value counted that is at least from, or
+    // -1 if none. Walks the values in order like a sorted set.
+    public int next(int from) {
+        for (int value = Math.max(from, 0); value < counts.length; value++) {
+            if (counts[value] != 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        distinct = 0;
+        total = 0;
+    }
+}
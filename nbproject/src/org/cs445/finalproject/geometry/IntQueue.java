@@ -0,0 +1,66 @@
+/**
+ * *************************************************************
+ * file: IntQueue.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: First-in first-out queue of ints in a fixed ring buffer,
+ * for traversals that would otherwise box every queued cell.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class IntQueue {
+
+    private final int[] elements;
+    private int head, size;
+
+    public IntQueue(int capacity) {
+        elements = new int[capacity];
+    }
+
+    // method: offer
+    // purpose: Append a value. The queue never holds more than the capacity
+    // it was created with.
+    public void offer(int value) {
+        if (size == elements.length) {
+            throw new IllegalStateException("Queue is full");
+        }
+        int tail = head + size;
+        elements[tail < elements.length ? tail : tail - elements.length] = value;
+        size++;
+    }
+
+    // method: poll
+    // purpose: Remove and return the oldest value
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        int value = elements[head];
+        head = head + 1 < elements.length ? head + 1 : 0;
+        size--;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
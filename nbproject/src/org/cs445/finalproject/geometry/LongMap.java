@@ -0,0 +1,172 @@
+/**
+ * *************************************************************
+ * file: LongMap.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Open-addressing hash map from long keys, such as packed
+ * coordinates, to non-null values. Keys are never boxed. Removed
+ * entries leave a marker behind, so entries can be removed while
+ * walking the slots.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.Arrays;
+
+public class LongMap<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Object REMOVED = new Object();
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    // slots holding a value or a removed marker
+    private int used;
+
+    public LongMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    // method: get
+    // purpose: Returns the value of a key, or null if there is none
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    // method: put
+    // purpose: Map a key to a value, returns the value it replaced or null
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Values must not be null");
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+        if ((used + 1) * 4 > values.length * 3) {
+            rehash(size * 2 >= values.length / 2
+                    ? values.length * 2 : values.length);
+        }
+        int mask = values.length - 1;
+        slot = hash(key) & mask;
+        while (values[slot] != null && values[slot] != REMOVED) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            used++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    // method: remove
+    // purpose: Remove a key, returns its value or null if there was none.
+    // Never moves other entries.
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        values[slot] = REMOVED;
+        size--;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        used = 0;
+    }
+
+    // method: capacity
+    // purpose: Returns the number of slots, walk them with keyAt and valueAt
+    public int capacity() {
+        return values.length;
+    }
+
+    // method: keyAt
+    // purpose: Returns the key in a slot, only meaningful where valueAt is
+    // not null
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    // method: valueAt
+    // purpose: Returns the value in a slot, or null if the slot is empty
+    @SuppressWarnings("unchecked")
+    public V valueAt(int slot) {
+        Object value = values[slot];
+        return value == REMOVED ? null : (V) value;
+    }
+
+    // method: find
+    // purpose: Returns the slot holding a key, or -1
+    private int find(long key) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (values[slot] != REMOVED && keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // method: rehash
+    // purpose: Move every entry into a table of the given capacity, dropping
+    // removed markers
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null || oldValues[i] == REMOVED) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+        used = size;
+    }
+
+    // method: hash
+    // purpose: Spread the key bits, packed coordinates differ mostly in
+    // their low bits of each half
+    private static int hash(long key) {
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (key ^ (key >>> 33));
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * *************************************************************
+ * file: MeshBuilder.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Writes quads packed as VertexFormat into a direct buffer
+ * that is reused between meshes and only grows when a mesh does not
+ * fit. Corner positions come from precomputed per-face tables, so
+ * meshing a block allocates nothing.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import org.lwjgl.BufferUtils;
+
+public class MeshBuilder {
+
+    private static final int QUAD_BYTES = 4 * VertexFormat.BYTES;
+    private static final int INITIAL_CAPACITY = 4096 * QUAD_BYTES;
+
+    // 0 or 1 per face, vertex and axis: whether the corner lies on the low
+    // or high edge of the block. Faces in Face order, corners in the order
+    // of the texture coordinate arrays.
+    private static final int[] EDGES = {
+        // top
+        1, 1, 1, 1, 1, 0, 0, 1, 0, 0, 1, 1,
+        // bottom
+        1, 0, 1, 0, 0, 1, 0, 0, 0, 1, 0, 0,
+        // back
+        1, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1, 0,
+        // front
+        1, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 1,
+        // right
+        1, 1, 0, 1, 1, 1, 1, 0, 1, 1, 0, 0,
+        // left
+        0, 1, 1, 0, 1, 0, 0, 0, 0, 0, 0, 1
+    };
+    // lighting term per block type id: grass, sand, water, dirt, stone and
+    // bedrock are all fully lit
+    private static final int[] LIGHTS = {255, 255, 255, 255, 255, 255};
+
+    private ByteBuffer vertices;
+    private int quadCount;
+
+    // per block type: the axis the tile u and v corners run along for each
+    // face. Built the first time a type is meshed.
+    private final int[][] cornerAxes = new int[Block.Type.values().length][];
+
+    public MeshBuilder() {
+        vertices = BufferUtils.createByteBuffer(INITIAL_CAPACITY);
+    }
+
+    // method: begin
+    // purpose: Discard the previous mesh and start a new one
+    public void begin() {
+        vertices.clear();
+        quadCount = 0;
+    }
+
+    // method: finish
+    // purpose: Returns the written vertices ready to upload. The buffer is
+    // reused by the next begin.
+    public ByteBuffer finish() {
+        vertices.flip();
+        return vertices;
+    }
+
+    // method: putFace
+    // purpose: Write one face of the block at a local coordinate
+    public void putFace(Block block, Face face, int x, int y, int z) {
+        putQuad(block, face, x, y, z, x + 1, y + 1, z + 1);
+    }
+
+    // method: putQuad
+    // purpose: Write one face of the box between two block edges. The tile
+    // texture repeats once per block along both sides of the face.
+    public void putQuad(Block block, Face face, int minX, int minY, int minZ,
+            int maxX, int maxY, int maxZ) {
+        if (vertices.remaining() < QUAD_BYTES) {
+            grow();
+        }
+        int typeId = block.getTypeId();
+        if (cornerAxes[typeId] == null) {
+            prepare(block);
+        }
+        int quad = face.ordinal();
+        float[] tiles = block.getTexCoords();
+        int repeatU = extent(cornerAxes[typeId][quad * 2],
+                minX, minY, minZ, maxX, maxY, maxZ);
+        int repeatV = extent(cornerAxes[typeId][quad * 2 + 1],
+                minX, minY, minZ, maxX, maxY, maxZ);
+        int light = LIGHTS[typeId];
+        for (int v = 0; v < 4; v++) {
+            int e = (quad * 4 + v) * 3;
+            int t = (quad * 4 + v) * 4;
+            vertices.put((byte) (EDGES[e] == 0 ? minX : maxX))
+                    .put((byte) (EDGES[e + 1] == 0 ? minY : maxY))
+                    .put((byte) (EDGES[e + 2] == 0 ? minZ : maxZ))
+                    .put((byte) light)
+                    .put((byte) ((int) tiles[t] * repeatU))
+                    .put((byte) ((int) tiles[t + 1] * repeatV))
+                    .put((byte) tiles[t + 2])
+                    .put((byte) tiles[t + 3]);
+        }
+        quadCount++;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    public int getVertexCount() {
+        return quadCount * 4;
+    }
+
+    // method: getCapacity
+    // purpose: Returns the size in bytes of the reused buffer
+    public int getCapacity() {
+        return vertices.capacity();
+    }
+
+    // method: grow
+    // purpose: Double the buffer, keeping what was written so far
+    private void grow() {
+        ByteBuffer grown = BufferUtils.createByteBuffer(vertices.capacity() * 2);
+        vertices.flip();
+        grown.put(vertices);
+        vertices = grown;
+    }
+
+    // method: prepare
+    // purpose: Find which axis the tile corners of a block type follow on
+    // each face
+    private void prepare(Block block) {
+        float[] tiles = block.getTexCoords();
+        int[] axes = new int[12];
+        for (int quad = 0; quad < 6; quad++) {
+            axes[quad * 2] = cornerAxis(tiles, quad, 0);
+            axes[quad * 2 + 1] = cornerAxis(tiles, quad, 1);
+        }
+        cornerAxes[block.getTypeId()] = axes;
+    }
+
+    // method: extent
+    // purpose: Returns the size of the box along an axis, 1 if there is none
+    private static int extent(int axis, int minX, int minY, int minZ,
+            int maxX, int maxY, int maxZ) {
+        switch (axis) {
+            case 0:
+                return maxX - minX;
+            case 1:
+                return maxY - minY;
+            case 2:
+                return maxZ - minZ;
+            default:
+                return 1;
+        }
+    }
+
+    // method: cornerAxis
+    // purpose: Returns the axis along which a tile corner component, 0 for u
+    // and 1 for v, changes across the quad of a face
+    private static int cornerAxis(float[] tiles, int quad, int component) {
+        for (int axis = 0; axis < 3; axis++) {
+            boolean matches = true;
+            for (int v = 1; v < 4 && matches; v++) {
+                boolean sameEdge = EDGES[(quad * 4 + v) * 3 + axis]
+                        == EDGES[quad * 4 * 3 + axis];
+                boolean sameCorner = tiles[(quad * 4 + v) * 4 + component]
+                        == tiles[quad * 4 * 4 + component];
+                matches = sameEdge == sameCorner;
+            }
+            if (matches) {
+                return axis;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * *************************************************************
+ * file: MeshScheduler.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Builds section meshes on worker threads and hands the
+ * finished vertex buffers to the GL thread through a lock-free queue.
+ * The GL thread passes them to an UploadScheduler, which uploads them
+ * within a time budget, so meshing never stalls a frame.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.lwjgl.BufferUtils;
+
+public class MeshScheduler {
+
+    // a finished mesh waiting for upload, without vertices if meshing failed
+    private static class Result {
+
+        final Chunk chunk;
+        final ChunkSection section;
+        final int version;
+        final ByteBuffer vertices;
+        final int vertexCount;
+
+        Result(Chunk chunk, ChunkSection section, int version,
+                ByteBuffer vertices, int vertexCount) {
+            this.chunk = chunk;
+            this.section = section;
+            this.version = version;
+            this.vertices = vertices;
+            this.vertexCount = vertexCount;
+        }
+    }
+
+    // per worker: its builder, and its copy of the last mesher it was given
+    private static class Worker {
+
+        final MeshBuilder builder = new MeshBuilder();
+        Mesher source;
+        Mesher mesher;
+    }
+
+    private final ExecutorService workers;
+    private final ThreadLocal<Worker> worker = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker();
+        }
+    };
+    // filled by the workers, drained by the GL thread
+    private final ConcurrentLinkedQueue<Result> finished
+            = new ConcurrentLinkedQueue<>();
+    // buffers already uploaded, reused by the workers
+    private final ConcurrentLinkedQueue<ByteBuffer> spare
+            = new ConcurrentLinkedQueue<>();
+    private final UploadScheduler uploads;
+
+    private static final Logger LOGGER
+            = Logger.getLogger(MeshScheduler.class.getName());
+
+    public MeshScheduler() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                new GLBuffers());
+    }
+
+    public MeshScheduler(int threads, GpuBuffers buffers) {
+        uploads = new UploadScheduler(new BufferArena(buffers), spare);
+        final AtomicInteger count = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r,
+                        "mesh-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    // method: schedule
+    // purpose: Queue a dirty section to be meshed on a worker. Called on the
+    // GL thread. A section already queued at its current version is skipped.
+    // Returns true if the section was queued.
+    public boolean schedule(final Chunk chunk, final ChunkSection section) {
+        if (section.isScheduled()) {
+            return false;
+        }
+        final int version = section.markScheduled();
+        final Mesher mesher = chunk.getMesher();
+        workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mesh(chunk, section, version, mesher);
+                } catch (Throwable e) {
+                    // an Error such as running out of direct memory too, or
+                    // the section would stay scheduled and never remesh
+                    LOGGER.log(Level.SEVERE, "Failed to mesh section", e);
+                    // the GL thread unmarks the section so it is retried
+                    finished.offer(new Result(chunk, section, version, null,
+                            0));
+                }
+            }
+        });
+        return true;
+    }
+
+    // method: uploadFinished
+    // purpose: On the GL thread, pass the meshes the workers finished to the
+    // upload scheduler and let it upload within its budget, nearest a world
+    // position first. Meshes of sections edited since they were queued are
+    // dropped, the section is queued again on its next rebuild, as are
+    // sections whose meshing failed. Returns the number of sections whose
+    // upload completed.
+    public int uploadFinished(float worldX, float worldY, float worldZ) {
+        Result result;
+        while ((result = finished.poll()) != null) {
+            if (result.vertices == null) {
+                result.section.clearScheduled(result.version);
+                continue;
+            }
+            uploads.submit(result.chunk, result.section, result.version,
+                    result.vertices, result.vertexCount);
+        }
+        return uploads.process(worldX, worldY, worldZ);
+    }
+
+    public UploadScheduler getUploads() {
+        return uploads;
+    }
+
+    // method: getPending
+    // purpose: Returns the number of finished meshes waiting for upload
+    public int getPending() {
+        return finished.size();
+    }
+
+    // method: shutdown
+    // purpose: Stop the workers, meshes in progress are dropped
+    public void shutdown() {
+        workers.shutdownNow();
+        uploads.getArena().dispose();
+    }
+
+    // method: mesh
+    // purpose: Build one section on a worker thread while the chunk is not
+    // being written, then publish a copy of the vertices
+    private void mesh(Chunk chunk, ChunkSection section, int version,
+            Mesher mesher) {
+        Worker state = worker.get();
+        if (state.source != mesher) {
+            state.source = mesher;
+            state.mesher = mesher.forWorker();
+        }
+        MeshBuilder builder = state.builder;
+        chunk.readLock().lock();
+        try {
+            if (chunk.isDisposed() || section.getVersion() != version) {
+                return;
+            }
+            builder.begin();
+            state.mesher.mesh(chunk, section, builder);
+        } finally {
+            chunk.readLock().unlock();
+        }
+        ByteBuffer vertices = builder.finish();
+        ByteBuffer copy = takeSpare(vertices.remaining());
+        copy.put(vertices).flip();
+        finished.offer(new Result(chunk, section, version, copy,
+                builder.getVertexCount()));
+    }
+
+    // method: takeSpare
+    // purpose: Returns an empty buffer of at least a size, reusing the next
+    // one already uploaded if it is large enough. A smaller one is left to
+    // the garbage collector.
+    private ByteBuffer takeSpare(int size) {
+        ByteBuffer buffer = spare.poll();
+        if (buffer != null && buffer.capacity() >= size) {
+            return buffer;
+        }
+        return BufferUtils.createByteBuffer(size);
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * *************************************************************
+ * file: Mesher.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Strategy that turns the blocks of a ChunkSection into quads
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public interface Mesher {
+
+    // method: mesh
+    // purpose: Write the quads of a section into a builder
+    void mesh(Chunk chunk, ChunkSection section, MeshBuilder builder);
+
+    // method: forWorker
+    // purpose: Returns a mesher equivalent to this one for a worker thread to
+    // use on its own. Meshers without state can share themselves.
+    default Mesher forWorker() {
+        return this;
+    }
+}
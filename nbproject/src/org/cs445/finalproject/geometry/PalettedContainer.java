@@ -0,0 +1,168 @@
+/**
+ * *************************************************************
+ * file: PalettedContainer.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Compact storage of block ids for one section. Each voxel
+ * stores an index into a small palette of block ids, packed into
+ * 1, 2, 4 or 8 bits depending on how many distinct ids are present.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class PalettedContainer {
+
+    public static final int MAX_BITS = 8;
+
+    // shared by single valued containers so reads never need a branch
+    private static final long[] EMPTY = new long[1];
+
+    private final int volume;
+    private int[] palette;
+    private int paletteSize;
+    private int bits;
+    private int shift;
+    private int mask;
+    private long[] data;
+
+    public PalettedContainer(int volume) {
+        this.volume = volume;
+        clear();
+    }
+
+    // method: clear
+    // purpose: Reset every voxel to air. A single valued container holds no
+    // packed data until a second id is written.
+    public final void clear() {
+        palette = new int[2];
+        paletteSize = 1;
+        bits = 0;
+        shift = 0;
+        mask = 0;
+        data = EMPTY;
+    }
+
+    // method: get
+    // purpose: Returns the block id stored at an index
+    public int get(int index) {
+        // masking with -bits pins single valued containers to entry 0
+        int bitIndex = (index << shift) & -bits;
+        return palette[(int) (data[bitIndex >>> 6] >>> (bitIndex & 63)) & mask];
+    }
+
+    // method: set
+    // purpose: Store a block id at an index, growing the palette if needed
+    public void set(int index, int id) {
+        int paletteIndex = indexOf(id);
+        if (paletteIndex < 0) {
+            paletteIndex = addToPalette(id);
+        }
+        if (bits == 0) {
+            return;
+        }
+        int bitIndex = index << shift;
+        int word = bitIndex >>> 6;
+        int offset = bitIndex & 63;
+        data[word] = (data[word] & ~((long) mask << offset))
+                | ((long) paletteIndex << offset);
+    }
+
+    // method: getBitsPerEntry
+    // purpose: Returns the number of bits used per voxel
+    public int getBitsPerEntry() {
+        return bits;
+    }
+
+    // method: getPaletteSize
+    // purpose: Returns the number of distinct ids in the palette
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    // method: getMemoryBytes
+    // purpose: Returns an estimate of the bytes held by the packed data and
+    // palette arrays
+    public long getMemoryBytes() {
+        long bytes = 16 + palette.length * 4L;
+        if (data != EMPTY) {
+            bytes += 16 + data.length * 8L;
+        }
+        return bytes;
+    }
+
+    // method: indexOf
+    // purpose: Returns the palette index of an id, or -1 if absent
+    private int indexOf(int id) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // method: addToPalette
+    // purpose: Append an id to the palette and widen the packed entries
+    // when the palette no longer fits the current bit width
+    private int addToPalette(int id) {
+        if (paletteSize == 1 << MAX_BITS) {
+            throw new IllegalStateException(
+                    "Palette is full, more than " + (1 << MAX_BITS) + " ids");
+        }
+        if (paletteSize == palette.length) {
+            int[] grown = new int[palette.length * 2];
+            System.arraycopy(palette, 0, grown, 0, paletteSize);
+            palette = grown;
+        }
+        palette[paletteSize] = id;
+        int paletteIndex = paletteSize++;
+        int required = bitsFor(paletteSize);
+        if (required != bits) {
+            resize(required);
+        }
+        return paletteIndex;
+    }
+
+    // method: resize
+    // purpose: Repack every voxel using a new bit width
+    private void resize(int newBits) {
+        long[] newData = new long[(volume * newBits + 63) >>> 6];
+        if (bits != 0) {
+            int newMask = (1 << newBits) - 1;
+            for (int i = 0; i < volume; i++) {
+                int bitIndex = i * bits;
+                long value = (data[bitIndex >>> 6] >>> (bitIndex & 63)) & mask;
+                int newBitIndex = i * newBits;
+                newData[newBitIndex >>> 6] |= (value & newMask) << (newBitIndex & 63);
+            }
+        }
+        data = newData;
+        bits = newBits;
+        shift = Integer.numberOfTrailingZeros(newBits);
+        mask = (1 << newBits) - 1;
+    }
+
+    // method: bitsFor
+    // purpose: Returns the smallest power of two bit width able to index a
+    // palette of the given size. Powers of two keep entries inside one long.
+    private static int bitsFor(int size) {
+        if (size <= 1) {
+            return 0;
+        }
+        if (size <= 2) {
+            return 1;
+        }
+        if (size <= 4) {
+            return 2;
+        }
+        if (size <= 16) {
+            return 4;
+        }
+        return 8;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * *************************************************************
+ * file: PriorityFlood.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Finds the depressions of a heightmap and the level water
+ * in each would rise to before spilling over the border. Columns are
+ * visited from the lowest border inwards with a min-heap, so the whole
+ * map is solved in one O(n log n) sweep. Depression interiors are
+ * filled with a GridFlood and skip the heap.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class PriorityFlood {
+
+    private static final Face[] SIDES = {
+        Face.BACK, Face.FRONT, Face.RIGHT, Face.LEFT
+    };
+
+    private final int[] heights;
+    private final int[] levels;
+    private final long[] heap;
+    private int heapSize;
+    // level of the column the current fill started from
+    private int level;
+
+    private PriorityFlood(int[] heights) {
+        this.heights = heights;
+        levels = new int[heights.length];
+        heap = new long[heights.length];
+    }
+
+    // method: spillLevels
+    // purpose: Returns, for each column of a heightmap indexed x * sizeZ + z,
+    // the level water rests at in it. A column lies in a depression when its
+    // level is above its height. Water leaves the map across its border and
+    // flows between the four side neighbours of a column.
+    public static int[] spillLevels(int[] heights, int sizeX, int sizeZ) {
+        PriorityFlood flood = new PriorityFlood(heights);
+        flood.sweep(new GridFlood(sizeX, 1, sizeZ));
+        return flood.levels;
+    }
+
+    // method: sweep
+    // purpose: Raise columns from the lowest border inwards. Columns at or
+    // below the level of the column being processed are filled right away by
+    // a breadth-first fill, only higher columns go through the heap.
+    private void sweep(GridFlood grid) {
+        for (int x = 0; x < grid.getSizeX(); x++) {
+            for (int z = 0; z < grid.getSizeZ(); z++) {
+                if (x == 0 || z == 0
+                        || x == grid.getSizeX() - 1 || z == grid.getSizeZ() - 1) {
+                    int column = grid.pack(x, 0, z);
+                    grid.mark(column);
+                    levels[column] = heights[column];
+                    push(key(heights[column], column));
+                }
+            }
+        }
+        GridFlood.Visitor raise = new GridFlood.Visitor() {
+            @Override
+            public boolean visit(int column) {
+                if (heights[column] <= level) {
+                    levels[column] = level;
+                    return true;
+                }
+                levels[column] = heights[column];
+                push(key(heights[column], column));
+                return false;
+            }
+        };
+        while (heapSize > 0) {
+            long head = pop();
+            level = (int) (head >>> 32);
+            grid.fill((int) head, SIDES, raise);
+        }
+    }
+
+    // method: key
+    // purpose: Pack a level and a column so keys order by level, then column
+    private static long key(int level, int column) {
+        return ((long) level << 32) | column;
+    }
+
+    // method: push
+    // purpose: Add a key to the heap
+    private void push(long key) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    // method: pop
+    // purpose: Remove and return the smallest key of the heap
+    private long pop() {
+        long smallest = heap[0];
+        long key = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+        return smallest;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * *************************************************************
+ * file: RayHit.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Result of a ray cast against the world: the block the ray
+ * stopped at, the face it entered through and how far it travelled.
+ * Block coordinates count blocks from the world origin, so they span
+ * chunks. Instances are meant to be reused between casts.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class RayHit {
+
+    private boolean hit;
+    private int blockX, blockY, blockZ;
+    private Face face;
+    private float distance;
+    private Block block;
+
+    // method: set
+    // purpose: Record a hit
+    void set(int blockX, int blockY, int blockZ, Face face, float distance,
+            Block block) {
+        this.hit = true;
+        this.blockX = blockX;
+        this.blockY = blockY;
+        this.blockZ = blockZ;
+        this.face = face;
+        this.distance = distance;
+        this.block = block;
+    }
+
+    // method: clear
+    // purpose: Record a miss
+    void clear() {
+        hit = false;
+        face = null;
+        block = null;
+        distance = Float.POSITIVE_INFINITY;
+    }
+
+    public boolean isHit() {
+        return hit;
+    }
+
+    public int getBlockX() {
+        return blockX;
+    }
+
+    public int getBlockY() {
+        return blockY;
+    }
+
+    public int getBlockZ() {
+        return blockZ;
+    }
+
+    // method: getFace
+    // purpose: Returns the face of the hit block the ray entered through, or
+    // null if the ray started inside the block
+    public Face getFace() {
+        return face;
+    }
+
+    // method: getDistance
+    // purpose: Returns the distance in world units from the ray origin to
+    // where it entered the block
+    public float getDistance() {
+        return distance;
+    }
+
+    public Block getBlock() {
+        return block;
+    }
+
+    @Override
+    public String toString() {
+        return hit ? "RayHit(" + blockX + ", " + blockY + ", " + blockZ + ", "
+                + face + ", " + distance + ")" : "RayHit(miss)";
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * *************************************************************
+ * file: TerrainShader.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Shader program used to draw chunks. It samples the terrain
+ * atlas with per-tile wrapping so merged quads repeat their texture.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL20.*;
+import org.newdawn.slick.util.ResourceLoader;
+
+public class TerrainShader {
+
+    public static final int TILES_PER_ROW = 16;
+
+    private static final String VERTEX_SHADER
+            = "org/cs445/finalproject/assets/terrain.vert";
+    private static final String FRAGMENT_SHADER
+            = "org/cs445/finalproject/assets/terrain.frag";
+
+    private static final Logger LOGGER
+            = Logger.getLogger(TerrainShader.class.getName());
+
+    private int program;
+    private int chunkOrigin;
+
+    public TerrainShader() {
+        try {
+            int vertex = compile(GL_VERTEX_SHADER, read(VERTEX_SHADER));
+            int fragment = compile(GL_FRAGMENT_SHADER, read(FRAGMENT_SHADER));
+            program = glCreateProgram();
+            glAttachShader(program, vertex);
+            glAttachShader(program, fragment);
+            glBindAttribLocation(program, VertexFormat.POSITION_ATTRIBUTE,
+                    "position");
+            glBindAttribLocation(program, VertexFormat.TILE_ATTRIBUTE, "tile");
+            glLinkProgram(program);
+            glDeleteShader(vertex);
+            glDeleteShader(fragment);
+            if (glGetProgrami(program, GL_LINK_STATUS) == GL_FALSE) {
+                throw new IllegalStateException(
+                        glGetProgramInfoLog(program, 4096));
+            }
+            glUseProgram(program);
+            glUniform1i(glGetUniformLocation(program, "atlas"), 0);
+            glUniform1f(glGetUniformLocation(program, "tilesPerRow"),
+                    TILES_PER_ROW);
+            glUniform1f(glGetUniformLocation(program, "blockLength"),
+                    Chunk.LENGTH);
+            chunkOrigin = glGetUniformLocation(program, "chunkOrigin");
+            glUseProgram(0);
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Failed to build terrain shader", e);
+            program = 0;
+        }
+    }
+
+    // method: bind
+    // purpose: Use the program and its vertex attributes for the following
+    // draws
+    public void bind() {
+        glUseProgram(program);
+        glEnableVertexAttribArray(VertexFormat.POSITION_ATTRIBUTE);
+        glEnableVertexAttribArray(VertexFormat.TILE_ATTRIBUTE);
+    }
+
+    // method: unbind
+    // purpose: Return to the fixed function pipeline
+    public void unbind() {
+        glDisableVertexAttribArray(VertexFormat.POSITION_ATTRIBUTE);
+        glDisableVertexAttribArray(VertexFormat.TILE_ATTRIBUTE);
+        glUseProgram(0);
+    }
+
+    // method: setChunk
+    // purpose: Place the following vertices relative to a chunk. Block edges
+    // start half a block before the chunk's first block center.
+    public void setChunk(Chunk chunk) {
+        float half = Chunk.LENGTH / 2.0f;
+        glUniform3f(chunkOrigin, chunk.getStartX() - half,
+                chunk.getStartY() - half, chunk.getStartZ() - half);
+    }
+
+    // method: dispose
+    // purpose: Release the program
+    public void dispose() {
+        if (program != 0) {
+            glDeleteProgram(program);
+            program = 0;
+        }
+    }
+
+    // method: compile
+    // purpose: Compile one shader stage, failing with its info log
+    private static int compile(int type, String source) {
+        int shader = glCreateShader(type);
+        glShaderSource(shader, source);
+        glCompileShader(shader);
+        if (glGetShaderi(shader, GL_COMPILE_STATUS) == GL_FALSE) {
+            String log = glGetShaderInfoLog(shader, 4096);
+            glDeleteShader(shader);
+            throw new IllegalStateException(log);
+        }
+        return shader;
+    }
+
+    // method: read
+    // purpose: Read a shader source from the classpath
+    private static String read(String path) throws IOException {
+        StringBuilder source = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ResourceLoader.getResourceAsStream(path),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                source.append(line).append('\n');
+            }
+        }
+        return source.toString();
+    }
+}
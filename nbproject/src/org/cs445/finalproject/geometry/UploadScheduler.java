@@ -0,0 +1,227 @@
+/**
+ * *************************************************************
+ * file: UploadScheduler.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Spreads section uploads over frames. Each mesh gets a range
+ * of a buffer arena sized up front and is written into it in fixed-size
+ * slices, nearest section first, until the frame's time budget is
+ * spent. A section keeps drawing its old range until the new one is
+ * complete.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+public class UploadScheduler {
+
+    // bytes written per sub-upload, a whole number of quads
+    public static final int SLICE_BYTES = 1024 * 4 * VertexFormat.BYTES;
+
+    // a mesh being written into its new range
+    private static class Upload {
+
+        final Chunk chunk;
+        final ChunkSection section;
+        final int version;
+        final ByteBuffer vertices;
+        final int vertexCount;
+        BufferArena.Range range;
+        float distance;
+
+        Upload(Chunk chunk, ChunkSection section, int version,
+                ByteBuffer vertices, int vertexCount) {
+            this.chunk = chunk;
+            this.section = section;
+            this.version = version;
+            this.vertices = vertices;
+            this.vertexCount = vertexCount;
+        }
+    }
+
+    private static final Comparator<Upload> NEAREST_FIRST
+            = new Comparator<Upload>() {
+        @Override
+        public int compare(Upload a, Upload b) {
+            return Float.compare(a.distance, b.distance);
+        }
+    };
+
+    private final BufferArena arena;
+    // vertex buffers are handed back here once written or dropped
+    private final Queue<ByteBuffer> recycle;
+    private final List<Upload> pending = new ArrayList<>();
+    private final Map<ChunkSection, Upload> bySection = new IdentityHashMap<>();
+    private long budgetMicros;
+    private int slicesWritten;
+
+    public UploadScheduler(BufferArena arena, Queue<ByteBuffer> recycle) {
+        this.arena = arena;
+        this.recycle = recycle;
+        budgetMicros = 2000;
+    }
+
+    // method: submit
+    // purpose: Queue a finished mesh of a section. A mesh still queued for
+    // the same section is replaced. The vertices are handed to the recycle
+    // queue once written.
+    public void submit(Chunk chunk, ChunkSection section, int version,
+            ByteBuffer vertices, int vertexCount) {
+        Upload previous = bySection.remove(section);
+        if (previous != null) {
+            pending.remove(previous);
+            drop(previous);
+        }
+        Upload upload = new Upload(chunk, section, version, vertices,
+                vertexCount);
+        pending.add(upload);
+        bySection.put(section, upload);
+    }
+
+    // method: process
+    // purpose: Write queued meshes, the ones nearest a world position first,
+    // until the time budget is spent. At least one slice is written per call
+    // so uploads always make progress. Returns the number of sections whose
+    // upload completed.
+    public int process(float worldX, float worldY, float worldZ) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long deadline = nanoTime() + budgetMicros * 1000;
+        for (Upload upload : pending) {
+            upload.distance = distance(upload, worldX, worldY, worldZ);
+        }
+        Collections.sort(pending, NEAREST_FIRST);
+        int completed = 0;
+        int index = 0;
+        boolean first = true;
+        while (index < pending.size()) {
+            Upload upload = pending.get(index);
+            if (upload.chunk.isDisposed()
+                    || upload.section.getVersion() != upload.version) {
+                pending.remove(index);
+                bySection.remove(upload.section);
+                drop(upload);
+                continue;
+            }
+            if (!first && nanoTime() >= deadline) {
+                break;
+            }
+            first = false;
+            if (writeSlice(upload)) {
+                pending.remove(index);
+                bySection.remove(upload.section);
+                complete(upload);
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    // method: setBudgetMicros
+    // purpose: Set how many microseconds process may spend per call
+    public void setBudgetMicros(long budgetMicros) {
+        this.budgetMicros = Math.max(0, budgetMicros);
+    }
+
+    public long getBudgetMicros() {
+        return budgetMicros;
+    }
+
+    // method: getPending
+    // purpose: Returns the number of sections with an upload in progress or
+    // waiting
+    public int getPending() {
+        return pending.size();
+    }
+
+    public BufferArena getArena() {
+        return arena;
+    }
+
+    // method: getSlicesWritten
+    // purpose: Returns the number of sub-uploads made so far
+    public int getSlicesWritten() {
+        return slicesWritten;
+    }
+
+    // method: nanoTime
+    // purpose: The clock the budget is measured with
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    // method: writeSlice
+    // purpose: Write the next slice of a mesh, allocating its range on the
+    // first one. Returns true once every byte was written.
+    private boolean writeSlice(Upload upload) {
+        ByteBuffer vertices = upload.vertices;
+        if (!vertices.hasRemaining()) {
+            return true;
+        }
+        if (upload.range == null) {
+            upload.range = arena.allocate(vertices.remaining());
+        }
+        int offset = vertices.position();
+        int end = Math.min(offset + SLICE_BYTES, vertices.limit());
+        int limit = vertices.limit();
+        vertices.limit(end);
+        arena.write(upload.range, offset, vertices);
+        slicesWritten++;
+        vertices.limit(limit);
+        vertices.position(end);
+        return !vertices.hasRemaining();
+    }
+
+    // method: complete
+    // purpose: Switch the section over to its new range, an empty mesh
+    // leaves it without one
+    private void complete(Upload upload) {
+        upload.section.replaceRange(upload.range, upload.vertexCount);
+        upload.range = null;
+        release(upload);
+    }
+
+    // method: drop
+    // purpose: Abandon an upload and free what it wrote so far
+    private void drop(Upload upload) {
+        if (upload.range != null) {
+            upload.range.release();
+            upload.range = null;
+        }
+        release(upload);
+    }
+
+    private void release(Upload upload) {
+        upload.vertices.clear();
+        recycle.offer(upload.vertices);
+    }
+
+    // method: distance
+    // purpose: Returns the squared world distance from a position to the
+    // center of an upload's section
+    private static float distance(Upload upload, float worldX, float worldY,
+            float worldZ) {
+        ChunkSection section = upload.section;
+        float dx = upload.chunk.getStartX() + (section.getX()
+                + section.getSizeX() / 2.0f) * Chunk.LENGTH - worldX;
+        float dy = upload.chunk.getStartY() + (section.getY()
+                + section.getSizeY() / 2.0f) * Chunk.LENGTH - worldY;
+        float dz = upload.chunk.getStartZ() + (section.getZ()
+                + section.getSizeZ() / 2.0f) * Chunk.LENGTH - worldZ;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * *************************************************************
+ * file: VertexFormat.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Packed layout of a terrain vertex, 8 bytes interleaved in
+ * one buffer. Bytes 0-3 are the x, y and z block edge relative to the
+ * chunk origin and a lighting term, bytes 4-7 are the tile corner u
+ * and v and the atlas tile column and row. Chunk sizes must stay
+ * below 256 blocks for the edges to fit a byte.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL20.*;
+
+public class VertexFormat {
+
+    public static final int BYTES = 8;
+    // the largest block edge a position byte holds
+    public static final int MAX_EDGE = 255;
+    public static final int POSITION_ATTRIBUTE = 0;
+    public static final int TILE_ATTRIBUTE = 1;
+
+    private VertexFormat() {
+    }
+
+    // method: setPointers
+    // purpose: Point the shader attributes at the bound vertex buffer
+    public static void setPointers() {
+        glVertexAttribPointer(POSITION_ATTRIBUTE, 4, GL_UNSIGNED_BYTE, false,
+                BYTES, 0L);
+        glVertexAttribPointer(TILE_ATTRIBUTE, 4, GL_UNSIGNED_BYTE, false,
+                BYTES, 4L);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * *************************************************************
+ * file: WorldSeed.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: The single seed a world is generated from. Every noise
+ * layer, random stream and per-block choice is derived from it, so
+ * the same seed always rebuilds the same world.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+public class WorldSeed {
+
+    // noise layers, each gets its own derived seed
+    public static final int SURFACE_NOISE_1 = 0;
+    public static final int SURFACE_NOISE_2 = 1;
+    public static final int DEEP_NOISE = 2;
+    public static final int CAVE_NOISE = 3;
+
+    // salts of per-block hashes
+    public static final int MATERIAL = 0;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public WorldSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // method: next
+    // purpose: Returns the seed following this one, used to pick a new world
+    // reproducibly
+    public WorldSeed next() {
+        return new WorldSeed(mix(seed + GOLDEN_GAMMA));
+    }
+
+    // method: noiseSeed
+    // purpose: Returns the seed of a noise layer. Never 0, which
+    // SimplexNoise_octave treats as a request for an unseeded random.
+    public int noiseSeed(int layer) {
+        int noiseSeed = (int) mix(seed ^ mix(layer + 1L));
+        return noiseSeed == 0 ? 1 : noiseSeed;
+    }
+
+    // method: hash
+    // purpose: Returns a well mixed hash of a block position in world block
+    // units. Different salts give independent hashes of the same position.
+    public long hash(int x, int y, int z, int salt) {
+        long h = seed ^ mix(salt + 1L);
+        h = mix(h + x * GOLDEN_GAMMA);
+        h = mix(h + y * GOLDEN_GAMMA);
+        return mix(h + z * GOLDEN_GAMMA);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WorldSeed && ((WorldSeed) o).seed == seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(seed);
+    }
+
+    // method: mix
+    // purpose: SplitMix64 finalizer, spreads every input bit over the output
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,5 +1,6 @@
 package org.cs445.finalproject.noise;
 
+import java.util.Arrays;
 import java.util.Random;
 
 public class SimplexNoise {
@@ -8,10 +9,32 @@ public class SimplexNoise {
     double[] frequencys;
     double[] amplitudes;
 
+    // bound on how fast one 2D octave can change per unit of its input:
+    // at most three corners contribute, each changing by less than
+    // 70 * sqrt(2) * 0.079
+    static final double MAX_SLOPE = 24.0;
+    private static final double ROUNDING = 1e-12;
+
     int largestFeature;
     double persistence;
     int seed;
 
+    // scratch arrays of the grid methods, kept per thread since one noise
+    // is sampled by every generation worker at once
+    private static final class Scratch {
+        double[] columns = new double[0];
+        double[] row = new double[0];
+        boolean[] skipped = new boolean[0];
+        boolean[] constant = new boolean[0];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>(){
+        @Override
+        protected Scratch initialValue(){
+            return new Scratch();
+        }
+    };
+
     public SimplexNoise(int largestFeature,double persistence, int seed){
         this.largestFeature=largestFeature;
         this.persistence=persistence;
@@ -56,15 +79,175 @@ public class SimplexNoise {
 
     }
 
+    // method: getNoise
+    // purpose: Fill out with the noise of a width by height grid of points
+    // starting at (x, y), step apart. Point (col, row) is stored at
+    // out[row * width + col]. Every value is identical to getNoise(int, int)
+    // at that point, but the octaves are swept one at a time over the whole
+    // grid and the scaled coordinates of each column and row are computed
+    // once per octave instead of once per point.
+    public void getNoise(double[] out, int x, int y, int step, int width, int height){
+        checkGrid(out.length, width, height);
+        Arrays.fill(out, 0, width * height, 0.0);
+        double[] columns = columns(width);
+        for(int i=0;i<octaves.length;i++){
+            double frequency = frequencys[i];
+            double amplitude = amplitudes[i];
+            SimplexNoise_octave octave = octaves[i];
+            for(int col=0;col<width;col++){
+                columns[col] = (x + col * step) / frequency;
+            }
+            for(int row=0;row<height;row++){
+                double rowY = (y + row * step) / frequency;
+                int index = row * width;
+                for(int col=0;col<width;col++){
+                    out[index + col] = out[index + col]
+                            + octave.noise(columns[col], rowY) * amplitude;
+                }
+            }
+        }
+    }
+
+    // method: getNoise
+    // purpose: Error bounded version of getNoise(double[], ...). Octaves
+    // whose amplitudes sum to less than epsilon are skipped, and octaves so
+    // low in frequency that they change by less than the rest of epsilon
+    // across the grid are sampled once at its center. Returns the bound on
+    // the difference to the exact values, never more than epsilon.
+    public double getNoise(double[] out, int x, int y, int step, int width, int height,
+            double epsilon){
+        checkGrid(out.length, width, height);
+        Arrays.fill(out, 0, width * height, 0.0);
+        if(width == 0 || height == 0){
+            return 0.0;
+        }
+        Scratch scratch = SCRATCH.get();
+        if(scratch.skipped.length < octaves.length){
+            scratch.skipped = new boolean[octaves.length];
+            scratch.constant = new boolean[octaves.length];
+        }
+        boolean[] skipped = scratch.skipped;
+        boolean[] constant = scratch.constant;
+        Arrays.fill(skipped, false);
+        Arrays.fill(constant, false);
+        double bound = 0.0;
+        // the smallest amplitudes first, each octave is within [-1, 1].
+        // Amplitudes grow with the octave when persistence is below 1.
+        for(int n=0;n<octaves.length;n++){
+            int i = persistence <= 1.0 ? n : octaves.length - 1 - n;
+            if(bound + amplitudes[i] > epsilon){
+                break;
+            }
+            bound += amplitudes[i];
+            skipped[i] = true;
+        }
+        // the lowest frequencies first, bounded by how far a point of the
+        // grid lies from its center
+        double centerX = x + step * (width - 1) / 2.0;
+        double centerY = y + step * (height - 1) / 2.0;
+        double radius = Math.abs(step) * Math.hypot(width - 1, height - 1) / 2.0;
+        for(int i=octaves.length-1;i>=0;i--){
+            if(skipped[i]){
+                continue;
+            }
+            double change = MAX_SLOPE * radius / frequencys[i] * amplitudes[i];
+            if(bound + change > epsilon){
+                break;
+            }
+            bound += change;
+            constant[i] = true;
+        }
+
+        double[] columns = columns(width);
+        for(int i=0;i<octaves.length;i++){
+            if(skipped[i]){
+                continue;
+            }
+            double frequency = frequencys[i];
+            double amplitude = amplitudes[i];
+            SimplexNoise_octave octave = octaves[i];
+            if(constant[i]){
+                double value = octave.noise(centerX / frequency, centerY / frequency) * amplitude;
+                for(int p=0;p<width*height;p++){
+                    out[p] = out[p] + value;
+                }
+                continue;
+            }
+            for(int col=0;col<width;col++){
+                columns[col] = (x + col * step) / frequency;
+            }
+            for(int row=0;row<height;row++){
+                double rowY = (y + row * step) / frequency;
+                int index = row * width;
+                for(int col=0;col<width;col++){
+                    out[index + col] = out[index + col]
+                            + octave.noise(columns[col], rowY) * amplitude;
+                }
+            }
+        }
+        // the pruned sum also rounds differently from the exact one
+        return bound == 0.0 ? 0.0 : bound + ROUNDING;
+    }
+
+    // method: getNoise
+    // purpose: Same as getNoise(double[], ...), stored as floats. Each row
+    // is summed in doubles, octave by octave, then rounded into out.
+    public void getNoise(float[] out, int x, int y, int step, int width, int height){
+        checkGrid(out.length, width, height);
+        Scratch scratch = SCRATCH.get();
+        // the scaled column coordinates of every octave, octave by octave
+        double[] columns = columns(octaves.length * width);
+        if(scratch.row.length < width){
+            scratch.row = new double[width];
+        }
+        double[] values = scratch.row;
+        for(int i=0;i<octaves.length;i++){
+            for(int col=0;col<width;col++){
+                columns[i * width + col] = (x + col * step) / frequencys[i];
+            }
+        }
+        for(int row=0;row<height;row++){
+            Arrays.fill(values, 0, width, 0.0);
+            for(int i=0;i<octaves.length;i++){
+                double rowY = (y + row * step) / frequencys[i];
+                double amplitude = amplitudes[i];
+                SimplexNoise_octave octave = octaves[i];
+                int offset = i * width;
+                for(int col=0;col<width;col++){
+                    values[col] = values[col]
+                            + octave.noise(columns[offset + col], rowY) * amplitude;
+                }
+            }
+            int index = row * width;
+            for(int col=0;col<width;col++){
+                out[index + col] = (float) values[col];
+            }
+        }
+    }
+
+    // method: columns
+    // purpose: Returns this thread's column scratch, at least length long
+    private static double[] columns(int length){
+        Scratch scratch = SCRATCH.get();
+        if(scratch.columns.length < length){
+            scratch.columns = new double[length];
+        }
+        return scratch.columns;
+    }
+
+    private static void checkGrid(int length, int width, int height){
+        if(width < 0 || height < 0 || (long) width * height > length){
+            throw new IllegalArgumentException("Grid of " + width + "x" + height
+                    + " does not fit an array of " + length);
+        }
+    }
+
     public double getNoise(int x,int y, int z){
 
         double result=0;
 
         for(int i=0;i<octaves.length;i++){
-          double frequency = Math.pow(2,i);
-          double amplitude = Math.pow(persistence,octaves.length-i);
-
-          result=result+octaves[i].noise(x/frequency, y/frequency,z/frequency)* amplitude;
+          result=result+octaves[i].noise(x/frequencys[i], y/frequencys[i],z/frequencys[i])* amplitudes[i];
         }
 
 
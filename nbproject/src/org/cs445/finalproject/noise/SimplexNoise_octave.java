@@ -30,18 +30,22 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
   public static int RANDOMSEED=0;
   private static int NUMBEROFSWAPS=400;  
 
-  private static Grad grad3[] = {new Grad(1,1,0),new Grad(-1,1,0),new Grad(1,-1,0),new Grad(-1,-1,0),
-                                 new Grad(1,0,1),new Grad(-1,0,1),new Grad(1,0,-1),new Grad(-1,0,-1),
-                                 new Grad(0,1,1),new Grad(0,-1,1),new Grad(0,1,-1),new Grad(0,-1,-1)};
-
-  private static Grad grad4[]= {new Grad(0,1,1,1),new Grad(0,1,1,-1),new Grad(0,1,-1,1),new Grad(0,1,-1,-1),
-                   new Grad(0,-1,1,1),new Grad(0,-1,1,-1),new Grad(0,-1,-1,1),new Grad(0,-1,-1,-1),
-                   new Grad(1,0,1,1),new Grad(1,0,1,-1),new Grad(1,0,-1,1),new Grad(1,0,-1,-1),
-                   new Grad(-1,0,1,1),new Grad(-1,0,1,-1),new Grad(-1,0,-1,1),new Grad(-1,0,-1,-1),
-                   new Grad(1,1,0,1),new Grad(1,1,0,-1),new Grad(1,-1,0,1),new Grad(1,-1,0,-1),
-                   new Grad(-1,1,0,1),new Grad(-1,1,0,-1),new Grad(-1,-1,0,1),new Grad(-1,-1,0,-1),
-                   new Grad(1,1,1,0),new Grad(1,1,-1,0),new Grad(1,-1,1,0),new Grad(1,-1,-1,0),
-                   new Grad(-1,1,1,0),new Grad(-1,1,-1,0),new Grad(-1,-1,1,0),new Grad(-1,-1,-1,0)};
+  // Gradients as flat primitive arrays, 3 and 4 components each, so the
+  // kernels read them without going through an object
+  private static final double GRAD3[] = {1,1,0, -1,1,0, 1,-1,0, -1,-1,0,
+                                         1,0,1, -1,0,1, 1,0,-1, -1,0,-1,
+                                         0,1,1, 0,-1,1, 0,1,-1, 0,-1,-1};
+
+  private static final double GRAD4[] = {0,1,1,1, 0,1,1,-1, 0,1,-1,1, 0,1,-1,-1,
+                   0,-1,1,1, 0,-1,1,-1, 0,-1,-1,1, 0,-1,-1,-1,
+                   1,0,1,1, 1,0,1,-1, 1,0,-1,1, 1,0,-1,-1,
+                   -1,0,1,1, -1,0,1,-1, -1,0,-1,1, -1,0,-1,-1,
+                   1,1,0,1, 1,1,0,-1, 1,-1,0,1, 1,-1,0,-1,
+                   -1,1,0,1, -1,1,0,-1, -1,-1,0,1, -1,-1,0,-1,
+                   1,1,1,0, 1,1,-1,0, 1,-1,1,0, 1,-1,-1,0,
+                   -1,1,1,0, -1,1,-1,0, -1,-1,1,0, -1,-1,-1,0};
+
+  private static final float GRAD3F[] = toFloat(GRAD3);
 
   private static short p_supply[] = {151,160,137,91,90,15, //this contains all the numbers between 0 and 255, these are put in a random order depending upon the seed
   131,13,201,95,96,53,194,233,7,225,140,36,103,30,69,142,8,99,37,240,21,10,23,
@@ -59,9 +63,12 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
 
   private short p[]=new short[p_supply.length];
 
-  // To remove the need for index wrapping, double the permutation table length
-  private short perm[] = new short[512];
-  private short permMod12[] = new short[512];
+  // To remove the need for index wrapping, double the permutation table length.
+  // gradIndex3 and gradIndex4 hold the offset of the gradient a permutation
+  // entry selects in GRAD3 and GRAD4, so no modulo is left in the kernels.
+  private int perm[] = new int[512];
+  private int gradIndex3[] = new int[512];
+  private int gradIndex4[] = new int[512];
   public SimplexNoise_octave(int seed) {
     p=p_supply.clone();
 
@@ -87,7 +94,8 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
     for(int i=0; i<512; i++)
     {
       perm[i]=p[i & 255];
-      permMod12[i] = (short)(perm[i] % 12);
+      gradIndex3[i] = (perm[i] % 12) * 3;
+      gradIndex4[i] = (perm[i] % 32) * 4;
     }
   }
 
@@ -105,14 +113,17 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
     return x<xi ? xi-1 : xi;
   }
 
-  private static double dot(Grad g, double x, double y) {
-    return g.x*x + g.y*y; }
-
-  private static double dot(Grad g, double x, double y, double z) {
-    return g.x*x + g.y*y + g.z*z; }
+  private static int fastfloor(float x) {
+    int xi = (int)x;
+    return x<xi ? xi-1 : xi;
+  }
 
-  private static double dot(Grad g, double x, double y, double z, double w) {
-    return g.x*x + g.y*y + g.z*z + g.w*w; }
+  private static float[] toFloat(double[] values) {
+    float[] result = new float[values.length];
+    for(int i=0; i<values.length; i++)
+      result[i] = (float)values[i];
+    return result;
+  }
 
 
   // 2D simplex noise
@@ -142,27 +153,27 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
     // Work out the hashed gradient indices of the three simplex corners
     int ii = i & 255;
     int jj = j & 255;
-    int gi0 = permMod12[ii+perm[jj]];
-    int gi1 = permMod12[ii+i1+perm[jj+j1]];
-    int gi2 = permMod12[ii+1+perm[jj+1]];
+    int gi0 = gradIndex3[ii+perm[jj]];
+    int gi1 = gradIndex3[ii+i1+perm[jj+j1]];
+    int gi2 = gradIndex3[ii+1+perm[jj+1]];
     // Calculate the contribution from the three corners
     double t0 = 0.5 - x0*x0-y0*y0;
     if(t0<0) n0 = 0.0;
     else {
       t0 *= t0;
-      n0 = t0 * t0 * dot(grad3[gi0], x0, y0);  // (x,y) of grad3 used for 2D gradient
+      n0 = t0 * t0 * (GRAD3[gi0]*x0 + GRAD3[gi0+1]*y0);  // (x,y) of grad3 used for 2D gradient
     }
     double t1 = 0.5 - x1*x1-y1*y1;
     if(t1<0) n1 = 0.0;
     else {
       t1 *= t1;
-      n1 = t1 * t1 * dot(grad3[gi1], x1, y1);
+      n1 = t1 * t1 * (GRAD3[gi1]*x1 + GRAD3[gi1+1]*y1);
     }
     double t2 = 0.5 - x2*x2-y2*y2;
     if(t2<0) n2 = 0.0;
     else {
       t2 *= t2;
-      n2 = t2 * t2 * dot(grad3[gi2], x2, y2);
+      n2 = t2 * t2 * (GRAD3[gi2]*x2 + GRAD3[gi2+1]*y2);
     }
     // Add contributions from each corner to get the final noise value.
     // The result is scaled to return values in the interval [-1,1].
@@ -217,34 +228,34 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
     int ii = i & 255;
     int jj = j & 255;
     int kk = k & 255;
-    int gi0 = permMod12[ii+perm[jj+perm[kk]]];
-    int gi1 = permMod12[ii+i1+perm[jj+j1+perm[kk+k1]]];
-    int gi2 = permMod12[ii+i2+perm[jj+j2+perm[kk+k2]]];
-    int gi3 = permMod12[ii+1+perm[jj+1+perm[kk+1]]];
+    int gi0 = gradIndex3[ii+perm[jj+perm[kk]]];
+    int gi1 = gradIndex3[ii+i1+perm[jj+j1+perm[kk+k1]]];
+    int gi2 = gradIndex3[ii+i2+perm[jj+j2+perm[kk+k2]]];
+    int gi3 = gradIndex3[ii+1+perm[jj+1+perm[kk+1]]];
     // Calculate the contribution from the four corners
     double t0 = 0.6 - x0*x0 - y0*y0 - z0*z0;
     if(t0<0) n0 = 0.0;
     else {
       t0 *= t0;
-      n0 = t0 * t0 * dot(grad3[gi0], x0, y0, z0);
+      n0 = t0 * t0 * (GRAD3[gi0]*x0 + GRAD3[gi0+1]*y0 + GRAD3[gi0+2]*z0);
     }
     double t1 = 0.6 - x1*x1 - y1*y1 - z1*z1;
     if(t1<0) n1 = 0.0;
     else {
       t1 *= t1;
-      n1 = t1 * t1 * dot(grad3[gi1], x1, y1, z1);
+      n1 = t1 * t1 * (GRAD3[gi1]*x1 + GRAD3[gi1+1]*y1 + GRAD3[gi1+2]*z1);
     }
     double t2 = 0.6 - x2*x2 - y2*y2 - z2*z2;
     if(t2<0) n2 = 0.0;
     else {
       t2 *= t2;
-      n2 = t2 * t2 * dot(grad3[gi2], x2, y2, z2);
+      n2 = t2 * t2 * (GRAD3[gi2]*x2 + GRAD3[gi2+1]*y2 + GRAD3[gi2+2]*z2);
     }
     double t3 = 0.6 - x3*x3 - y3*y3 - z3*z3;
     if(t3<0) n3 = 0.0;
     else {
       t3 *= t3;
-      n3 = t3 * t3 * dot(grad3[gi3], x3, y3, z3);
+      n3 = t3 * t3 * (GRAD3[gi3]*x3 + GRAD3[gi3+1]*y3 + GRAD3[gi3+2]*z3);
     }
     // Add contributions from each corner to get the final noise value.
     // The result is scaled to stay just inside [-1,1]
@@ -252,6 +263,125 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
   }
 
 
+  // Single precision factors for the float kernels
+  private static final float F2F = (float)F2;
+  private static final float G2F = (float)G2;
+  private static final float F3F = (float)F3;
+  private static final float G3F = (float)G3;
+
+  // 2D simplex noise in single precision. Same algorithm as noise(double,
+  // double), results differ from it only by float rounding.
+  public float noiseFloat(float xin, float yin) {
+    float n0, n1, n2;
+    float s = (xin+yin)*F2F;
+    int i = fastfloor(xin+s);
+    int j = fastfloor(yin+s);
+    float t = (i+j)*G2F;
+    float x0 = xin-(i-t);
+    float y0 = yin-(j-t);
+    int i1, j1;
+    if(x0>y0) {i1=1; j1=0;}
+    else {i1=0; j1=1;}
+    float x1 = x0 - i1 + G2F;
+    float y1 = y0 - j1 + G2F;
+    float x2 = x0 - 1.0f + 2.0f * G2F;
+    float y2 = y0 - 1.0f + 2.0f * G2F;
+    int ii = i & 255;
+    int jj = j & 255;
+    int gi0 = gradIndex3[ii+perm[jj]];
+    int gi1 = gradIndex3[ii+i1+perm[jj+j1]];
+    int gi2 = gradIndex3[ii+1+perm[jj+1]];
+    float t0 = 0.5f - x0*x0-y0*y0;
+    if(t0<0) n0 = 0.0f;
+    else {
+      t0 *= t0;
+      n0 = t0 * t0 * (GRAD3F[gi0]*x0 + GRAD3F[gi0+1]*y0);
+    }
+    float t1 = 0.5f - x1*x1-y1*y1;
+    if(t1<0) n1 = 0.0f;
+    else {
+      t1 *= t1;
+      n1 = t1 * t1 * (GRAD3F[gi1]*x1 + GRAD3F[gi1+1]*y1);
+    }
+    float t2 = 0.5f - x2*x2-y2*y2;
+    if(t2<0) n2 = 0.0f;
+    else {
+      t2 *= t2;
+      n2 = t2 * t2 * (GRAD3F[gi2]*x2 + GRAD3F[gi2+1]*y2);
+    }
+    return 70.0f * (n0 + n1 + n2);
+  }
+
+
+  // 3D simplex noise in single precision. Same algorithm as noise(double,
+  // double, double), results differ from it only by float rounding.
+  public float noiseFloat(float xin, float yin, float zin) {
+    float n0, n1, n2, n3;
+    float s = (xin+yin+zin)*F3F;
+    int i = fastfloor(xin+s);
+    int j = fastfloor(yin+s);
+    int k = fastfloor(zin+s);
+    float t = (i+j+k)*G3F;
+    float x0 = xin-(i-t);
+    float y0 = yin-(j-t);
+    float z0 = zin-(k-t);
+    int i1, j1, k1;
+    int i2, j2, k2;
+    if(x0>=y0) {
+      if(y0>=z0)
+        { i1=1; j1=0; k1=0; i2=1; j2=1; k2=0; }
+        else if(x0>=z0) { i1=1; j1=0; k1=0; i2=1; j2=0; k2=1; }
+        else { i1=0; j1=0; k1=1; i2=1; j2=0; k2=1; }
+      }
+    else {
+      if(y0<z0) { i1=0; j1=0; k1=1; i2=0; j2=1; k2=1; }
+      else if(x0<z0) { i1=0; j1=1; k1=0; i2=0; j2=1; k2=1; }
+      else { i1=0; j1=1; k1=0; i2=1; j2=1; k2=0; }
+    }
+    float x1 = x0 - i1 + G3F;
+    float y1 = y0 - j1 + G3F;
+    float z1 = z0 - k1 + G3F;
+    float x2 = x0 - i2 + 2.0f*G3F;
+    float y2 = y0 - j2 + 2.0f*G3F;
+    float z2 = z0 - k2 + 2.0f*G3F;
+    float x3 = x0 - 1.0f + 3.0f*G3F;
+    float y3 = y0 - 1.0f + 3.0f*G3F;
+    float z3 = z0 - 1.0f + 3.0f*G3F;
+    int ii = i & 255;
+    int jj = j & 255;
+    int kk = k & 255;
+    int gi0 = gradIndex3[ii+perm[jj+perm[kk]]];
+    int gi1 = gradIndex3[ii+i1+perm[jj+j1+perm[kk+k1]]];
+    int gi2 = gradIndex3[ii+i2+perm[jj+j2+perm[kk+k2]]];
+    int gi3 = gradIndex3[ii+1+perm[jj+1+perm[kk+1]]];
+    float t0 = 0.6f - x0*x0 - y0*y0 - z0*z0;
+    if(t0<0) n0 = 0.0f;
+    else {
+      t0 *= t0;
+      n0 = t0 * t0 * (GRAD3F[gi0]*x0 + GRAD3F[gi0+1]*y0 + GRAD3F[gi0+2]*z0);
+    }
+    float t1 = 0.6f - x1*x1 - y1*y1 - z1*z1;
+    if(t1<0) n1 = 0.0f;
+    else {
+      t1 *= t1;
+      n1 = t1 * t1 * (GRAD3F[gi1]*x1 + GRAD3F[gi1+1]*y1 + GRAD3F[gi1+2]*z1);
+    }
+    float t2 = 0.6f - x2*x2 - y2*y2 - z2*z2;
+    if(t2<0) n2 = 0.0f;
+    else {
+      t2 *= t2;
+      n2 = t2 * t2 * (GRAD3F[gi2]*x2 + GRAD3F[gi2+1]*y2 + GRAD3F[gi2+2]*z2);
+    }
+    float t3 = 0.6f - x3*x3 - y3*y3 - z3*z3;
+    if(t3<0) n3 = 0.0f;
+    else {
+      t3 *= t3;
+      n3 = t3 * t3 * (GRAD3F[gi3]*x3 + GRAD3F[gi3+1]*y3 + GRAD3F[gi3+2]*z3);
+    }
+    return 32.0f*(n0 + n1 + n2 + n3);
+  }
+
+
   // 4D simplex noise, better simplex rank ordering method 2012-03-09
   public double noise(double x, double y, double z, double w) {
 
@@ -330,66 +460,44 @@ public class SimplexNoise_octave {  // Simplex noise in 2D, 3D and 4D
     int jj = j & 255;
     int kk = k & 255;
     int ll = l & 255;
-    int gi0 = perm[ii+perm[jj+perm[kk+perm[ll]]]] % 32;
-    int gi1 = perm[ii+i1+perm[jj+j1+perm[kk+k1+perm[ll+l1]]]] % 32;
-    int gi2 = perm[ii+i2+perm[jj+j2+perm[kk+k2+perm[ll+l2]]]] % 32;
-    int gi3 = perm[ii+i3+perm[jj+j3+perm[kk+k3+perm[ll+l3]]]] % 32;
-    int gi4 = perm[ii+1+perm[jj+1+perm[kk+1+perm[ll+1]]]] % 32;
+    int gi0 = gradIndex4[ii+perm[jj+perm[kk+perm[ll]]]];
+    int gi1 = gradIndex4[ii+i1+perm[jj+j1+perm[kk+k1+perm[ll+l1]]]];
+    int gi2 = gradIndex4[ii+i2+perm[jj+j2+perm[kk+k2+perm[ll+l2]]]];
+    int gi3 = gradIndex4[ii+i3+perm[jj+j3+perm[kk+k3+perm[ll+l3]]]];
+    int gi4 = gradIndex4[ii+1+perm[jj+1+perm[kk+1+perm[ll+1]]]];
     // Calculate the contribution from the five corners
     double t0 = 0.6 - x0*x0 - y0*y0 - z0*z0 - w0*w0;
     if(t0<0) n0 = 0.0;
     else {
       t0 *= t0;
-      n0 = t0 * t0 * dot(grad4[gi0], x0, y0, z0, w0);
+      n0 = t0 * t0 * (GRAD4[gi0]*x0 + GRAD4[gi0+1]*y0 + GRAD4[gi0+2]*z0 + GRAD4[gi0+3]*w0);
     }
    double t1 = 0.6 - x1*x1 - y1*y1 - z1*z1 - w1*w1;
     if(t1<0) n1 = 0.0;
     else {
       t1 *= t1;
-      n1 = t1 * t1 * dot(grad4[gi1], x1, y1, z1, w1);
+      n1 = t1 * t1 * (GRAD4[gi1]*x1 + GRAD4[gi1+1]*y1 + GRAD4[gi1+2]*z1 + GRAD4[gi1+3]*w1);
     }
    double t2 = 0.6 - x2*x2 - y2*y2 - z2*z2 - w2*w2;
     if(t2<0) n2 = 0.0;
     else {
       t2 *= t2;
-      n2 = t2 * t2 * dot(grad4[gi2], x2, y2, z2, w2);
+      n2 = t2 * t2 * (GRAD4[gi2]*x2 + GRAD4[gi2+1]*y2 + GRAD4[gi2+2]*z2 + GRAD4[gi2+3]*w2);
     }
    double t3 = 0.6 - x3*x3 - y3*y3 - z3*z3 - w3*w3;
     if(t3<0) n3 = 0.0;
     else {
       t3 *= t3;
-      n3 = t3 * t3 * dot(grad4[gi3], x3, y3, z3, w3);
+      n3 = t3 * t3 * (GRAD4[gi3]*x3 + GRAD4[gi3+1]*y3 + GRAD4[gi3+2]*z3 + GRAD4[gi3+3]*w3);
     }
    double t4 = 0.6 - x4*x4 - y4*y4 - z4*z4 - w4*w4;
     if(t4<0) n4 = 0.0;
     else {
       t4 *= t4;
-      n4 = t4 * t4 * dot(grad4[gi4], x4, y4, z4, w4);
+      n4 = t4 * t4 * (GRAD4[gi4]*x4 + GRAD4[gi4+1]*y4 + GRAD4[gi4+2]*z4 + GRAD4[gi4+3]*w4);
     }
     // Sum up and scale the result to cover the range [-1,1]
     return 27.0 * (n0 + n1 + n2 + n3 + n4);
   }
 
-  // Inner class to speed upp gradient computations
-  // (array access is a lot slower than member access)
-  private static class Grad
-  {
-    double x, y, z, w;
-
-    Grad(double x, double y, double z)
-    {
-      this.x = x;
-      this.y = y;
-      this.z = z;
-    }
-
-    Grad(double x, double y, double z, double w)
-    {
-      this.x = x;
-      this.y = y;
-      this.z = z;
-      this.w = w;
-    }
-  }
-
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+/**
+ * *************************************************************
+ * file: Benchmark.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: A small timing harness for the benchmark mains next to the
+ * tests. Each task is run a number of warm-up rounds so the JIT settles,
+ * then timed over several rounds; the median and fastest round are
+ * printed. Tasks return a checksum so their work cannot be optimized
+ * away.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject;
+
+import java.util.Arrays;
+
+public class Benchmark {
+
+    // a unit of work to time, returning a value that depends on all of it
+    public interface Task {
+
+        long run();
+    }
+
+    private final int warmups;
+    private final int rounds;
+    private long checksum;
+
+    public Benchmark() {
+        this(Integer.getInteger("benchmark.warmups", 10),
+                Integer.getInteger("benchmark.rounds", 15));
+    }
+
+    public Benchmark(int warmups, int rounds) {
+        this.warmups = warmups;
+        this.rounds = Math.max(1, rounds);
+    }
+
+    // method: measure
+    // purpose: Time a task and print its median and fastest round. Returns
+    // the median in milliseconds.
+    public double measure(String name, Task task) {
+        for (int i = 0; i < warmups; i++) {
+            checksum += task.run();
+        }
+        double[] times = new double[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            checksum += task.run();
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        double median = times[rounds / 2];
+        System.out.printf("%-40s median %9.3f ms   min %9.3f ms%n", name,
+                median, times[0]);
+        return median;
+    }
+
+    // method: getChecksum
+    // purpose: Returns the sum of every value the tasks returned, print it
+    // at the end of a run so none of the work is dead
+    public long getChecksum() {
+        return checksum;
+    }
+}
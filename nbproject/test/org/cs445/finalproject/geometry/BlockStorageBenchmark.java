@@ -0,0 +1,135 @@
+/**
+ * *************************************************************
+ * file: BlockStorageBenchmark.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Compares block reads through BlockStorage with the
+ * Block[x][y][z] arrays it replaced, using the access patterns of
+ * isVisible and hasBlock on a generated chunk. The array versions are
+ * the ones Chunk used before the storage change.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import org.cs445.finalproject.Benchmark;
+
+public class BlockStorageBenchmark {
+
+    private static final int SIZE = Chunk.SIZE;
+    private static final int HEIGHT = TestChunks.HEIGHT;
+
+    public static void main(String[] args) {
+        final Chunk chunk = TestChunks.generate(42L);
+        final Block[][][] blocks = new Block[SIZE][HEIGHT][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    blocks[x][y][z] = chunk.blockAt(x, y, z);
+                }
+            }
+        }
+        Benchmark benchmark = new Benchmark();
+        benchmark.measure("isVisible, Block[][][]", new Benchmark.Task() {
+            @Override
+            public long run() {
+                long visible = 0;
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        for (int y = 0; y < HEIGHT; y++) {
+                            if (isVisible(blocks, x, y, z)) {
+                                visible++;
+                            }
+                        }
+                    }
+                }
+                return visible;
+            }
+        });
+        benchmark.measure("isVisible, BlockStorage", new Benchmark.Task() {
+            @Override
+            public long run() {
+                long visible = 0;
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        for (int y = 0; y < HEIGHT; y++) {
+                            if (chunk.isVisible(x, y, z)) {
+                                visible++;
+                            }
+                        }
+                    }
+                }
+                return visible;
+            }
+        });
+        benchmark.measure("hasBlock, Block[][][]", new Benchmark.Task() {
+            @Override
+            public long run() {
+                long found = 0;
+                for (float x = 0; x < (SIZE - 1) * Chunk.LENGTH; x += 0.75f) {
+                    for (float z = 0; z < (SIZE - 1) * Chunk.LENGTH; z += 0.75f) {
+                        for (float y = 0; y < HEIGHT * Chunk.LENGTH; y += 1.5f) {
+                            if (hasBlock(blocks, x, y, z)) {
+                                found++;
+                            }
+                        }
+                    }
+                }
+                return found;
+            }
+        });
+        benchmark.measure("hasBlock, BlockStorage", new Benchmark.Task() {
+            @Override
+            public long run() {
+                long found = 0;
+                for (float x = 0; x < (SIZE - 1) * Chunk.LENGTH; x += 0.75f) {
+                    for (float z = 0; z < (SIZE - 1) * Chunk.LENGTH; z += 0.75f) {
+                        for (float y = 0; y < HEIGHT * Chunk.LENGTH; y += 1.5f) {
+                            if (chunk.hasBlock(x, y, z)) {
+                                found++;
+                            }
+                        }
+                    }
+                }
+                return found;
+            }
+        });
+        System.out.println("checksum " + benchmark.getChecksum());
+        System.exit(0);
+    }
+
+    // method: isVisible
+    // purpose: The array version of Chunk.isVisible
+    private static boolean isVisible(Block[][][] blocks, int x, int y, int z) {
+        return x == 0
+                || x == SIZE - 1
+                || y == 0
+                || y == HEIGHT - 1
+                || z == 0
+                || z == SIZE - 1
+                || blocks[x][y][z] == null
+                || blocks[x - 1][y][z] == null
+                || blocks[x + 1][y][z] == null
+                || blocks[x][y][z - 1] == null
+                || blocks[x][y][z + 1] == null
+                || blocks[x][y + 1][z] == null;
+    }
+
+    // method: hasBlock
+    // purpose: The array version of Chunk.hasBlock, for a chunk at the origin
+    private static boolean hasBlock(Block[][][] blocks, float worldX,
+            float worldY, float worldZ) {
+        int x = (int) Math.floor(worldX / Chunk.LENGTH + 0.5f);
+        int y = (int) Math.floor(worldY / Chunk.LENGTH + 0.5f);
+        int z = (int) Math.floor(worldZ / Chunk.LENGTH + 0.5f);
+        try {
+            return blocks[x][y][z] != null;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * *************************************************************
+ * file: CaveBenchmark.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Compares sampling the cave density of a chunk at every block
+ * against sampling it on the coarse lattice Chunk uses and
+ * interpolating in between.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import org.cs445.finalproject.Benchmark;
+import org.cs445.finalproject.noise.SimplexNoise;
+
+public class CaveBenchmark {
+
+    private static final int SIZE = Chunk.SIZE;
+    private static final int HEIGHT = TestChunks.HEIGHT;
+    private static final int TILE = BlockStorage.SECTION_SIZE;
+    // the lattice spacing and noise of Chunk.carveTile
+    private static final int STEP_X = 4;
+    private static final int STEP_Y = 8;
+    private static final int STEP_Z = 4;
+    private static final double THRESHOLD = 0.25;
+
+    public static void main(String[] args) {
+        final SimplexNoise noise = new SimplexNoise(32, 0.5, 12345);
+        Benchmark benchmark = new Benchmark();
+        double full = benchmark.measure("density, every block",
+                new Benchmark.Task() {
+            @Override
+            public long run() {
+                long carved = 0;
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        for (int y = 1; y < HEIGHT; y++) {
+                            if (noise.getNoise(x, y, z) > THRESHOLD) {
+                                carved++;
+                            }
+                        }
+                    }
+                }
+                return carved;
+            }
+        });
+        double lattice = benchmark.measure("density, lattice",
+                new Benchmark.Task() {
+            @Override
+            public long run() {
+                long carved = 0;
+                for (int minX = 0; minX < SIZE; minX += TILE) {
+                    for (int minZ = 0; minZ < SIZE; minZ += TILE) {
+                        carved += carveTile(noise, minX, minZ,
+                                Math.min(TILE, SIZE - minX),
+                                Math.min(TILE, SIZE - minZ));
+                    }
+                }
+                return carved;
+            }
+        });
+        System.out.printf("lattice is %.1f times faster%n", full / lattice);
+        System.out.println("checksum " + benchmark.getChecksum());
+    }
+
+    // method: carveTile
+    // purpose: Count the blocks of a tile the interpolated lattice density
+    // carves, sampled the way Chunk.carveTile samples it
+    private static long carveTile(SimplexNoise noise, int minX, int minZ,
+            int width, int depth) {
+        int pointsX = (width + STEP_X - 1) / STEP_X + 1;
+        int pointsY = (HEIGHT + STEP_Y - 1) / STEP_Y + 1;
+        int pointsZ = (depth + STEP_Z - 1) / STEP_Z + 1;
+        double[] density = new double[pointsX * pointsY * pointsZ];
+        for (int px = 0; px < pointsX; px++) {
+            for (int pz = 0; pz < pointsZ; pz++) {
+                for (int py = 0; py < pointsY; py++) {
+                    density[(px * pointsZ + pz) * pointsY + py]
+                            = noise.getNoise(minX + px * STEP_X, py * STEP_Y,
+                                    minZ + pz * STEP_Z);
+                }
+            }
+        }
+        long carved = 0;
+        for (int x = 0; x < width; x++) {
+            int px = x / STEP_X;
+            double fx = (double) (x % STEP_X) / STEP_X;
+            for (int z = 0; z < depth; z++) {
+                int pz = z / STEP_Z;
+                double fz = (double) (z % STEP_Z) / STEP_Z;
+                int c00 = (px * pointsZ + pz) * pointsY;
+                int c01 = (px * pointsZ + pz + 1) * pointsY;
+                int c10 = ((px + 1) * pointsZ + pz) * pointsY;
+                int c11 = ((px + 1) * pointsZ + pz + 1) * pointsY;
+                for (int y = 1; y < HEIGHT; y++) {
+                    int py = y / STEP_Y;
+                    double fy = (double) (y % STEP_Y) / STEP_Y;
+                    double d00 = lerp(density[c00 + py], density[c00 + py + 1], fy);
+                    double d01 = lerp(density[c01 + py], density[c01 + py + 1], fy);
+                    double d10 = lerp(density[c10 + py], density[c10 + py + 1], fy);
+                    double d11 = lerp(density[c11 + py], density[c11 + py + 1], fy);
+                    if (lerp(lerp(d00, d01, fz), lerp(d10, d11, fz), fx)
+                            > THRESHOLD) {
+                        carved++;
+                    }
+                }
+            }
+        }
+        return carved;
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+}
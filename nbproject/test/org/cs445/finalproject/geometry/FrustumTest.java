@@ -0,0 +1,159 @@
+/**
+ * *************************************************************
+ * file: FrustumTest.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Checks the frustum planes against transforming points the
+ * way the GL matrices do: glRotatef by pitch around x, by yaw around
+ * y, glTranslatef by the camera position, then gluPerspective. A point
+ * is inside when its clip coordinates lie within -w and w.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FrustumTest {
+
+    private static final float FOV = 70.0f;
+    private static final float ASPECT = 640.0f / 480.0f;
+    private static final float NEAR = 0.1f;
+    private static final float FAR = 300.0f;
+    // points this close to a plane, relative to w, are not compared
+    private static final double MARGIN = 1e-3;
+    private static final int CAMERAS = 50;
+    private static final int POINTS = 2000;
+
+    @Test
+    public void pointsMatchTheClipTransform() {
+        Random random = new Random(445);
+        Frustum frustum = new Frustum();
+        frustum.setPerspective(FOV, ASPECT, NEAR, FAR);
+        int inside = 0;
+        for (int i = 0; i < CAMERAS; i++) {
+            float[] camera = randomCamera(random);
+            frustum.setView(camera[0], camera[1], camera[2], camera[3],
+                    camera[4]);
+            for (int j = 0; j < POINTS; j++) {
+                float x = -camera[0] + (random.nextFloat() - 0.5f) * 2 * FAR;
+                float y = -camera[1] + (random.nextFloat() - 0.5f) * 2 * FAR;
+                float z = -camera[2] + (random.nextFloat() - 0.5f) * 2 * FAR;
+                double margin = clipMargin(camera, x, y, z);
+                if (Math.abs(margin) < MARGIN) {
+                    continue;
+                }
+                assertEquals(margin > 0, frustum.containsPoint(x, y, z));
+                if (margin > 0) {
+                    inside++;
+                }
+            }
+        }
+        // the comparison covers both outcomes
+        assertTrue(inside > CAMERAS);
+    }
+
+    @Test
+    public void boxesAroundInsidePointsIntersect() {
+        Random random = new Random(18);
+        Frustum frustum = new Frustum();
+        frustum.setPerspective(FOV, ASPECT, NEAR, FAR);
+        for (int i = 0; i < CAMERAS; i++) {
+            float[] camera = randomCamera(random);
+            frustum.setView(camera[0], camera[1], camera[2], camera[3],
+                    camera[4]);
+            for (int j = 0; j < POINTS; j++) {
+                float x = -camera[0] + (random.nextFloat() - 0.5f) * 2 * FAR;
+                float y = -camera[1] + (random.nextFloat() - 0.5f) * 2 * FAR;
+                float z = -camera[2] + (random.nextFloat() - 0.5f) * 2 * FAR;
+                float size = random.nextFloat() * 64.0f;
+                boolean intersects = frustum.intersectsBox(x, y, z,
+                        x + size, y + size, z + size);
+                // a box holding a point inside the frustum is never culled
+                for (int corner = 0; corner < 9; corner++) {
+                    float px = corner == 8 ? x + size / 2 : x + (corner & 1) * size;
+                    float py = corner == 8 ? y + size / 2 : y + (corner >> 1 & 1) * size;
+                    float pz = corner == 8 ? z + size / 2 : z + (corner >> 2 & 1) * size;
+                    if (clipMargin(camera, px, py, pz) > MARGIN) {
+                        assertTrue(intersects);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void boxesOutsideOnePlaneAreCulled() {
+        Frustum frustum = new Frustum();
+        frustum.setPerspective(FOV, ASPECT, NEAR, FAR);
+        // an eye at (10, 5, 20) looking down -z
+        frustum.setView(-10.0f, -5.0f, -20.0f, 0.0f, 0.0f);
+        assertTrue(frustum.intersectsBox(9, 4, 0, 11, 6, 2));
+        // behind the eye
+        assertFalse(frustum.intersectsBox(9, 4, 30, 11, 6, 32));
+        // beyond the far plane
+        assertFalse(frustum.intersectsBox(9, 4, -400, 11, 6, -398));
+        // far to the left, and far above
+        assertFalse(frustum.intersectsBox(-200, 4, -10, -198, 6, -8));
+        assertFalse(frustum.intersectsBox(9, 200, -10, 11, 202, -8));
+        // a box surrounding the whole frustum
+        assertTrue(frustum.intersectsBox(-1000, -1000, -1000,
+                1000, 1000, 1000));
+
+        // turned around by yaw, the box behind is now in front
+        frustum.setView(-10.0f, -5.0f, -20.0f, 180.0f, 0.0f);
+        assertTrue(frustum.intersectsBox(9, 4, 30, 11, 6, 32));
+        assertFalse(frustum.intersectsBox(9, 4, 0, 11, 6, 2));
+    }
+
+    // method: randomCamera
+    // purpose: Returns a camera position, yaw and pitch
+    private static float[] randomCamera(Random random) {
+        return new float[]{
+            (random.nextFloat() - 0.5f) * 400.0f,
+            (random.nextFloat() - 0.5f) * 100.0f,
+            (random.nextFloat() - 0.5f) * 400.0f,
+            random.nextFloat() * 360.0f,
+            (random.nextFloat() - 0.5f) * 180.0f
+        };
+    }
+
+    // method: clipMargin
+    // purpose: Transform a world point like the GL matrices of a camera and
+    // return how far inside the clip volume it is, relative to w. Negative
+    // when it is outside.
+    private static double clipMargin(float[] camera, float x, float y,
+            float z) {
+        // glTranslatef
+        double tx = x + camera[0];
+        double ty = y + camera[1];
+        double tz = z + camera[2];
+        // glRotatef(yaw, 0, 1, 0)
+        double yaw = Math.toRadians(camera[3]);
+        double rx = Math.cos(yaw) * tx + Math.sin(yaw) * tz;
+        double rz = -Math.sin(yaw) * tx + Math.cos(yaw) * tz;
+        // glRotatef(pitch, 1, 0, 0)
+        double pitch = Math.toRadians(camera[4]);
+        double ex = rx;
+        double ey = Math.cos(pitch) * ty - Math.sin(pitch) * rz;
+        double ez = Math.sin(pitch) * ty + Math.cos(pitch) * rz;
+        // gluPerspective
+        double f = 1.0 / Math.tan(Math.toRadians(FOV) / 2.0);
+        double cx = f / ASPECT * ex;
+        double cy = f * ey;
+        double cz = (FAR + NEAR) / (NEAR - FAR) * ez
+                + 2.0 * FAR * NEAR / (NEAR - FAR);
+        double w = -ez;
+        if (w <= 0) {
+            return -1.0;
+        }
+        return Math.min(Math.min(w - Math.abs(cx), w - Math.abs(cy)),
+                w - Math.abs(cz)) / w;
+    }
+}
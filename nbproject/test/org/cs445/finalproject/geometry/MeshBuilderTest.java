@@ -0,0 +1,58 @@
+/**
+ * *************************************************************
+ * file: MeshBuilderTest.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Checks that meshing a chunk into a warmed-up MeshBuilder
+ * allocates next to nothing per quad, using the JVM's per-thread
+ * allocation counter.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class MeshBuilderTest {
+
+    private static final int WARMUPS = 5;
+
+    @Test
+    public void meshingDoesNotAllocatePerQuad() {
+        java.lang.management.ThreadMXBean bean
+                = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Chunk chunk = TestChunks.generate(42L);
+        ChunkSection[] sections = TestChunks.createSections();
+        Mesher[] meshers = {
+            new CubeMesher(), new CulledMesher(), new GreedyMesher()
+        };
+        long thread = Thread.currentThread().getId();
+        for (Mesher mesher : meshers) {
+            MeshBuilder builder = new MeshBuilder();
+            // grows the buffer to its final size and lets the JIT settle
+            for (int i = 0; i < WARMUPS; i++) {
+                TestChunks.mesh(chunk, sections, mesher, builder);
+            }
+            long before = threads.getThreadAllocatedBytes(thread);
+            TestChunks.mesh(chunk, sections, mesher, builder);
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            int quads = builder.getQuadCount();
+            assertTrue(mesher.getClass().getSimpleName() + " allocated "
+                    + allocated + " bytes for " + quads + " quads",
+                    allocated < quads / 8);
+        }
+    }
+}
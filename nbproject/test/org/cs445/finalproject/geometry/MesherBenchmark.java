@@ -0,0 +1,46 @@
+/**
+ * *************************************************************
+ * file: MesherBenchmark.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Compares the time to mesh a generated chunk with the cube,
+ * culled and greedy meshers against the vertices each one produces.
+ * Nothing is uploaded, only the builder is filled.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import org.cs445.finalproject.Benchmark;
+
+public class MesherBenchmark {
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        final Chunk chunk = TestChunks.generate(seed);
+        final MeshBuilder builder = new MeshBuilder();
+        Benchmark benchmark = new Benchmark();
+        Mesher[] meshers = {
+            new CubeMesher(), new CulledMesher(), new GreedyMesher()
+        };
+        for (final Mesher mesher : meshers) {
+            String name = mesher.getClass().getSimpleName();
+            benchmark.measure(name, new Benchmark.Task() {
+                @Override
+                public long run() {
+                    TestChunks.mesh(chunk, mesher, builder);
+                    return builder.getVertexCount();
+                }
+            });
+            System.out.printf("%-40s %d vertices, %d bytes%n", name,
+                    builder.getVertexCount(),
+                    builder.getVertexCount() * VertexFormat.BYTES);
+        }
+        System.out.println("checksum " + benchmark.getChecksum());
+        System.exit(0);
+    }
+}
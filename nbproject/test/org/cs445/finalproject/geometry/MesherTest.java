@@ -0,0 +1,143 @@
+/**
+ * *************************************************************
+ * file: MesherTest.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Compares the quads of the meshers on generated chunks. The
+ * culled mesher must draw exactly the block faces that touch air or the
+ * chunk border, fewer quads than the cube mesher, and the greedy mesher
+ * must cover the same faces with merged quads.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MesherTest {
+
+    private static final int SIZE = Chunk.SIZE;
+    private static final int HEIGHT = TestChunks.HEIGHT;
+    private static final long[] SEEDS = {1L, 42L, 445L};
+
+    // a builder that also records every block face its quads cover
+    private static class FaceRecorder extends MeshBuilder {
+
+        private final Set<Long> faces = new HashSet<>();
+        private long area;
+
+        @Override
+        public void putQuad(Block block, Face face, int minX, int minY,
+                int minZ, int maxX, int maxY, int maxZ) {
+            super.putQuad(block, face, minX, minY, minZ, maxX, maxY, maxZ);
+            for (int x = minX; x < maxX; x++) {
+                for (int y = minY; y < maxY; y++) {
+                    for (int z = minZ; z < maxZ; z++) {
+                        assertTrue("face drawn twice",
+                                faces.add(faceKey(face, x, y, z)));
+                        area++;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void culledMesherDrawsExactlyTheExposedFaces() {
+        for (long seed : SEEDS) {
+            Chunk chunk = TestChunks.generate(seed);
+            FaceRecorder recorder = mesh(chunk, new CulledMesher());
+            assertEquals(exposedFaces(chunk), recorder.faces);
+            assertEquals(recorder.faces.size(), recorder.getQuadCount());
+        }
+    }
+
+    @Test
+    public void culledMesherDrawsFewerQuadsThanCubes() {
+        for (long seed : SEEDS) {
+            Chunk chunk = TestChunks.generate(seed);
+            int cubes = mesh(chunk, new CubeMesher()).getQuadCount();
+            int culled = mesh(chunk, new CulledMesher()).getQuadCount();
+            assertEquals(6 * visibleBlocks(chunk), cubes);
+            assertTrue("culled " + culled + " of " + cubes + " cube quads",
+                    culled * 2 < cubes);
+        }
+    }
+
+    @Test
+    public void greedyMesherCoversTheCulledFaces() {
+        for (long seed : SEEDS) {
+            Chunk chunk = TestChunks.generate(seed);
+            FaceRecorder culled = mesh(chunk, new CulledMesher());
+            FaceRecorder greedy = mesh(chunk, new GreedyMesher());
+            assertEquals(culled.faces, greedy.faces);
+            assertEquals(culled.area, greedy.area);
+            assertTrue(greedy.getQuadCount() < culled.getQuadCount());
+        }
+    }
+
+    // method: mesh
+    // purpose: Mesh every section of a chunk into one recorder
+    private static FaceRecorder mesh(Chunk chunk, Mesher mesher) {
+        FaceRecorder recorder = new FaceRecorder();
+        TestChunks.mesh(chunk, mesher, recorder);
+        return recorder;
+    }
+
+    // method: exposedFaces
+    // purpose: Returns every face of a solid block whose neighbour is air or
+    // outside the chunk, found by brute force
+    private static Set<Long> exposedFaces(Chunk chunk) {
+        Set<Long> faces = new HashSet<>();
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    if (!chunk.isSolid(x, y, z)) {
+                        continue;
+                    }
+                    for (Face face : Face.values()) {
+                        int nx = x + face.getDx();
+                        int ny = y + face.getDy();
+                        int nz = z + face.getDz();
+                        boolean inside = nx >= 0 && nx < SIZE
+                                && ny >= 0 && ny < HEIGHT
+                                && nz >= 0 && nz < SIZE;
+                        if (!inside || !chunk.isSolid(nx, ny, nz)) {
+                            faces.add(faceKey(face, x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+        return faces;
+    }
+
+    // method: visibleBlocks
+    // purpose: Returns how many solid blocks the cube mesher draws
+    private static int visibleBlocks(Chunk chunk) {
+        int visible = 0;
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    if (chunk.isSolid(x, y, z) && chunk.isVisible(x, y, z)) {
+                        visible++;
+                    }
+                }
+            }
+        }
+        return visible;
+    }
+
+    // method: faceKey
+    // purpose: Returns a key for one face of the block at a local coordinate
+    private static long faceKey(Face face, int x, int y, int z) {
+        return (((long) face.ordinal() * SIZE + x) * HEIGHT + y) * SIZE + z;
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * *************************************************************
+ * file: TestChunks.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Builds chunks without a GL context for the tests and
+ * benchmarks. Meshing goes through a MeshScheduler whose buffers are
+ * only counted, so nothing touches GL.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+
+public class TestChunks {
+
+    // the height generated chunks are filled to
+    public static final int HEIGHT = Chunk.HEIGHT;
+
+    // vertex buffers that only hand out handles and skip the data
+    public static class NullBuffers implements GpuBuffers {
+
+        private int next = 1;
+
+        @Override
+        public int create(int bytes) {
+            return next++;
+        }
+
+        @Override
+        public void write(int handle, long offset, ByteBuffer data) {
+            data.position(data.limit());
+        }
+
+        @Override
+        public void delete(int handle) {
+        }
+    }
+
+    private static final MeshScheduler SCHEDULER
+            = new MeshScheduler(1, new NullBuffers());
+
+    private TestChunks() {
+    }
+
+    // method: generate
+    // purpose: Returns a chunk at the origin generated from a world seed
+    public static Chunk generate(long seed) {
+        return generate(seed, new CulledMesher());
+    }
+
+    // method: generate
+    // purpose: Returns a chunk at the origin generated from a world seed,
+    // meshed with a mesher
+    public static Chunk generate(long seed, Mesher mesher) {
+        return new Chunk(0, 0, 0, seed, mesher, SCHEDULER);
+    }
+
+    // method: createSections
+    // purpose: Returns sections covering a generated chunk, split the way
+    // Chunk splits it
+    public static ChunkSection[] createSections() {
+        int sectionSize = BlockStorage.SECTION_SIZE;
+        int count = (Chunk.SIZE + sectionSize - 1) / sectionSize;
+        int countY = (HEIGHT + sectionSize - 1) / sectionSize;
+        ChunkSection[] sections = new ChunkSection[count * countY * count];
+        int i = 0;
+        for (int x = 0; x < Chunk.SIZE; x += sectionSize) {
+            for (int y = 0; y < HEIGHT; y += sectionSize) {
+                for (int z = 0; z < Chunk.SIZE; z += sectionSize) {
+                    sections[i++] = new ChunkSection(x, y, z,
+                            Math.min(sectionSize, Chunk.SIZE - x),
+                            Math.min(sectionSize, HEIGHT - y),
+                            Math.min(sectionSize, Chunk.SIZE - z));
+                }
+            }
+        }
+        return sections;
+    }
+
+    // method: mesh
+    // purpose: Mesh every section of a chunk into one builder, without
+    // uploading anything
+    public static void mesh(Chunk chunk, Mesher mesher, MeshBuilder builder) {
+        mesh(chunk, createSections(), mesher, builder);
+    }
+
+    // method: mesh
+    // purpose: Mesh the given sections of a chunk into one builder
+    public static void mesh(Chunk chunk, ChunkSection[] sections,
+            Mesher mesher, MeshBuilder builder) {
+        builder.begin();
+        for (ChunkSection section : sections) {
+            mesher.mesh(chunk, section, builder);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * *************************************************************
+ * file: UploadSchedulerTest.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Drives the UploadScheduler against vertex buffers that only
+ * record their writes and a clock that advances with every write, to
+ * check upload order, slicing, the time budget and dropping of stale
+ * meshes.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.geometry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class UploadSchedulerTest {
+
+    private static final int SLICE = UploadScheduler.SLICE_BYTES;
+    // how long the recorded buffers pretend each write takes
+    private static final long WRITE_NANOS = 300000;
+
+    private long clock;
+    private final List<long[]> writes = new ArrayList<>();
+    private final ArrayDeque<ByteBuffer> recycled = new ArrayDeque<>();
+    private UploadScheduler uploads;
+    private Chunk chunk;
+
+    // vertex buffers that record each write as handle, offset and bytes
+    private class RecordingBuffers implements GpuBuffers {
+
+        private int next = 1;
+
+        @Override
+        public int create(int bytes) {
+            return next++;
+        }
+
+        @Override
+        public void write(int handle, long offset, ByteBuffer data) {
+            writes.add(new long[]{handle, offset, data.remaining()});
+            data.position(data.limit());
+            clock += WRITE_NANOS;
+        }
+
+        @Override
+        public void delete(int handle) {
+        }
+    }
+
+    @Before
+    public void setUp() {
+        uploads = new UploadScheduler(new BufferArena(new RecordingBuffers()),
+                recycled) {
+            @Override
+            protected long nanoTime() {
+                return clock;
+            }
+        };
+        chunk = TestChunks.generate(1L);
+    }
+
+    @Test
+    public void nearestSectionUploadsFirst() {
+        ChunkSection far = new ChunkSection(80, 0, 80, 16, 16, 16);
+        ChunkSection near = new ChunkSection(0, 0, 0, 16, 16, 16);
+        ChunkSection middle = new ChunkSection(32, 0, 0, 16, 16, 16);
+        submit(far, SLICE);
+        submit(near, SLICE);
+        submit(middle, SLICE);
+        uploads.setBudgetMicros(0);
+
+        assertEquals(1, uploads.process(0, 0, 0));
+        assertEquals(SLICE / VertexFormat.BYTES, near.getVertexCount());
+        assertEquals(0, middle.getVertexCount());
+        assertEquals(1, uploads.process(0, 0, 0));
+        assertEquals(SLICE / VertexFormat.BYTES, middle.getVertexCount());
+        assertEquals(0, far.getVertexCount());
+        assertEquals(1, uploads.process(0, 0, 0));
+        assertEquals(SLICE / VertexFormat.BYTES, far.getVertexCount());
+        assertEquals(0, uploads.getPending());
+        assertEquals(3, recycled.size());
+    }
+
+    @Test
+    public void largeMeshIsWrittenInSlices() {
+        ChunkSection section = new ChunkSection(0, 0, 0, 16, 16, 16);
+        int bytes = 3 * SLICE + 64;
+        submit(section, bytes);
+        uploads.setBudgetMicros(0);
+
+        for (int slice = 0; slice < 3; slice++) {
+            assertEquals(0, uploads.process(0, 0, 0));
+            // the old mesh is drawn until the new one is complete
+            assertEquals(0, section.getVertexCount());
+        }
+        assertEquals(1, uploads.process(0, 0, 0));
+        assertEquals(bytes / VertexFormat.BYTES, section.getVertexCount());
+
+        assertEquals(4, writes.size());
+        long start = writes.get(0)[1];
+        for (int slice = 0; slice < 4; slice++) {
+            long[] write = writes.get(slice);
+            assertEquals(writes.get(0)[0], write[0]);
+            assertEquals(start + slice * SLICE, write[1]);
+            assertEquals(slice < 3 ? SLICE : 64, write[2]);
+        }
+        assertEquals(4, uploads.getSlicesWritten());
+    }
+
+    @Test
+    public void budgetLimitsSlicesPerCall() {
+        ChunkSection section = new ChunkSection(0, 0, 0, 16, 16, 16);
+        submit(section, 10 * SLICE);
+        // writes take 300 us, so four fit before the 1000 us deadline
+        uploads.setBudgetMicros(1000);
+
+        assertEquals(0, uploads.process(0, 0, 0));
+        assertEquals(4, writes.size());
+        assertEquals(0, uploads.process(0, 0, 0));
+        assertEquals(8, writes.size());
+        assertEquals(1, uploads.process(0, 0, 0));
+        assertEquals(10, writes.size());
+        assertEquals(0, uploads.getPending());
+    }
+
+    @Test
+    public void staleMeshIsDropped() {
+        ChunkSection section = new ChunkSection(0, 0, 0, 16, 16, 16);
+        submit(section, 3 * SLICE);
+        uploads.setBudgetMicros(0);
+        assertEquals(0, uploads.process(0, 0, 0));
+        assertEquals(1, writes.size());
+
+        section.markDirty();
+        assertEquals(0, uploads.process(0, 0, 0));
+        assertEquals(1, writes.size());
+        assertEquals(0, uploads.getPending());
+        assertEquals(0, section.getVertexCount());
+        assertEquals(1, recycled.size());
+        assertEquals(0, uploads.getArena().getLiveBytes());
+    }
+
+    @Test
+    public void newerMeshReplacesQueuedOne() {
+        ChunkSection section = new ChunkSection(0, 0, 0, 16, 16, 16);
+        submit(section, SLICE);
+        submit(section, 2 * SLICE);
+        assertEquals(1, recycled.size());
+        assertEquals(1, uploads.getPending());
+
+        uploads.setBudgetMicros(1000);
+        assertEquals(1, uploads.process(0, 0, 0));
+        assertEquals(2 * SLICE / VertexFormat.BYTES, section.getVertexCount());
+        assertEquals(2, writes.size());
+    }
+
+    // method: submit
+    // purpose: Queue a mesh of a number of bytes for the current version of
+    // a section
+    private void submit(ChunkSection section, int bytes) {
+        uploads.submit(chunk, section, section.getVersion(),
+                ByteBuffer.allocate(bytes), bytes / VertexFormat.BYTES);
+    }
+}
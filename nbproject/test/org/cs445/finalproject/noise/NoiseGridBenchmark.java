@@ -0,0 +1,55 @@
+/**
+ * *************************************************************
+ * file: NoiseGridBenchmark.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Compares filling a chunk-sized grid of surface noise through
+ * getNoise(int, int) per point against the grid getNoise, and prints
+ * the points per second of each.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.noise;
+
+import org.cs445.finalproject.Benchmark;
+
+public class NoiseGridBenchmark {
+
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 100;
+
+    public static void main(String[] args) {
+        // the second surface noise of Chunk, the one with the most octaves
+        final SimplexNoise noise = new SimplexNoise(300000, 0.77, 12345);
+        final double[] out = new double[WIDTH * HEIGHT];
+        Benchmark benchmark = new Benchmark();
+        double point = benchmark.measure("getNoise per point",
+                new Benchmark.Task() {
+            @Override
+            public long run() {
+                double sum = 0.0;
+                for (int row = 0; row < HEIGHT; row++) {
+                    for (int col = 0; col < WIDTH; col++) {
+                        sum += noise.getNoise(col, row);
+                    }
+                }
+                return Double.doubleToLongBits(sum);
+            }
+        });
+        double grid = benchmark.measure("getNoise grid", new Benchmark.Task() {
+            @Override
+            public long run() {
+                noise.getNoise(out, 0, 0, 1, WIDTH, HEIGHT);
+                return Double.doubleToLongBits(out[out.length / 2]);
+            }
+        });
+        double points = WIDTH * HEIGHT;
+        System.out.printf("per point %.2f Mpoints/s, grid %.2f Mpoints/s%n",
+                points / point / 1e3, points / grid / 1e3);
+        System.out.println("checksum " + benchmark.getChecksum());
+    }
+}
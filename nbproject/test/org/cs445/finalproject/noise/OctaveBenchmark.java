@@ -0,0 +1,98 @@
+/**
+ * *************************************************************
+ * file: OctaveBenchmark.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Times the 2D, 3D and 4D kernels of SimplexNoise_octave, and
+ * the float variants of the 2D and 3D ones, on the same random points,
+ * and prints the nanoseconds per point of each.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.noise;
+
+import java.util.Random;
+import org.cs445.finalproject.Benchmark;
+
+public class OctaveBenchmark {
+
+    private static final int POINTS = 1 << 20;
+
+    public static void main(String[] args) {
+        final SimplexNoise_octave octave = new SimplexNoise_octave(1234);
+        final double[] coords = new double[POINTS + 3];
+        final float[] floatCoords = new float[POINTS + 3];
+        Random random = new Random(5);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = random.nextDouble() * 1000.0;
+            floatCoords[i] = (float) coords[i];
+        }
+        Benchmark benchmark = new Benchmark();
+        report("noise 2D", benchmark.measure("noise 2D", new Benchmark.Task() {
+            @Override
+            public long run() {
+                double sum = 0.0;
+                for (int i = 0; i < POINTS; i++) {
+                    sum += octave.noise(coords[i], coords[i + 1]);
+                }
+                return Double.doubleToLongBits(sum);
+            }
+        }));
+        report("noiseFloat 2D", benchmark.measure("noiseFloat 2D",
+                new Benchmark.Task() {
+            @Override
+            public long run() {
+                float sum = 0.0f;
+                for (int i = 0; i < POINTS; i++) {
+                    sum += octave.noiseFloat(floatCoords[i], floatCoords[i + 1]);
+                }
+                return Float.floatToIntBits(sum);
+            }
+        }));
+        report("noise 3D", benchmark.measure("noise 3D", new Benchmark.Task() {
+            @Override
+            public long run() {
+                double sum = 0.0;
+                for (int i = 0; i < POINTS; i++) {
+                    sum += octave.noise(coords[i], coords[i + 1], coords[i + 2]);
+                }
+                return Double.doubleToLongBits(sum);
+            }
+        }));
+        report("noiseFloat 3D", benchmark.measure("noiseFloat 3D",
+                new Benchmark.Task() {
+            @Override
+            public long run() {
+                float sum = 0.0f;
+                for (int i = 0; i < POINTS; i++) {
+                    sum += octave.noiseFloat(floatCoords[i], floatCoords[i + 1],
+                            floatCoords[i + 2]);
+                }
+                return Float.floatToIntBits(sum);
+            }
+        }));
+        report("noise 4D", benchmark.measure("noise 4D", new Benchmark.Task() {
+            @Override
+            public long run() {
+                double sum = 0.0;
+                for (int i = 0; i < POINTS; i++) {
+                    sum += octave.noise(coords[i], coords[i + 1], coords[i + 2],
+                            coords[i + 3]);
+                }
+                return Double.doubleToLongBits(sum);
+            }
+        }));
+        System.out.println("checksum " + benchmark.getChecksum());
+    }
+
+    // method: report
+    // purpose: Print the time per point of a measured kernel
+    private static void report(String name, double milliseconds) {
+        System.out.printf("%-40s %.1f ns/point%n", name + ", per point",
+                milliseconds * 1e6 / POINTS);
+    }
+}
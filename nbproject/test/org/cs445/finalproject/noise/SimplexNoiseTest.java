@@ -0,0 +1,167 @@
+/**
+ * *************************************************************
+ * file: SimplexNoiseTest.java
+ * author: Loc Mai, Michael Tran, George Zhang
+ * class: CS 445 – Computer Graphics
+ *
+ * assignment: Final Project
+ * date last modified: 10/18/26
+ *
+ * purpose: Checks the grid sampling of SimplexNoise against sampling
+ * point by point: exact grids must be bit-identical, error bounded
+ * grids must stay within the bound they return, and chunks generated
+ * with pruned noise must hold the same blocks. Warmed-up grid calls
+ * must not allocate.
+ *
+ ***************************************************************
+ */
+package org.cs445.finalproject.noise;
+
+import java.lang.management.ManagementFactory;
+import org.cs445.finalproject.geometry.Block;
+import org.cs445.finalproject.geometry.Chunk;
+import org.cs445.finalproject.geometry.TestChunks;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class SimplexNoiseTest {
+
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+    // origin x, origin y and step of each sampled grid
+    private static final int[][] GRIDS = {
+        {0, 0, 1}, {-512, 77, 1}, {100000, -3000, 3}, {5, 5, -2}
+    };
+    private static final double[] EPSILONS = {1e-6, 1e-3, 0.05, 0.5};
+
+    @Test
+    public void gridIsIdenticalToPoints() {
+        SimplexNoise noise = new SimplexNoise(300000, 0.77, 12345);
+        double[] out = new double[WIDTH * HEIGHT];
+        for (int[] grid : GRIDS) {
+            noise.getNoise(out, grid[0], grid[1], grid[2], WIDTH, HEIGHT);
+            for (int row = 0; row < HEIGHT; row++) {
+                for (int col = 0; col < WIDTH; col++) {
+                    double expected = noise.getNoise(grid[0] + col * grid[2],
+                            grid[1] + row * grid[2]);
+                    assertEquals(Double.doubleToLongBits(expected),
+                            Double.doubleToLongBits(out[row * WIDTH + col]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void floatGridIsTheRoundedDoubleGrid() {
+        SimplexNoise noise = new SimplexNoise(300000, 0.77, 12345);
+        double[] exact = new double[WIDTH * HEIGHT];
+        float[] out = new float[WIDTH * HEIGHT];
+        for (int[] grid : GRIDS) {
+            noise.getNoise(exact, grid[0], grid[1], grid[2], WIDTH, HEIGHT);
+            noise.getNoise(out, grid[0], grid[1], grid[2], WIDTH, HEIGHT);
+            for (int i = 0; i < out.length; i++) {
+                assertEquals(Float.floatToIntBits((float) exact[i]),
+                        Float.floatToIntBits(out[i]));
+            }
+        }
+    }
+
+    @Test
+    public void warmGridDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean
+                = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        SimplexNoise noise = new SimplexNoise(300000, 0.77, 12345);
+        double[] out = new double[WIDTH * HEIGHT];
+        float[] floats = new float[WIDTH * HEIGHT];
+        long thread = Thread.currentThread().getId();
+        for (int pass = 0; pass < 2; pass++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            noise.getNoise(out, 0, 0, 1, WIDTH, HEIGHT);
+            noise.getNoise(out, 0, 0, 1, WIDTH, HEIGHT, 0.05);
+            noise.getNoise(floats, 0, 0, 1, WIDTH, HEIGHT);
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            // the first pass sizes the scratch arrays
+            if (pass == 1) {
+                assertEquals(0, allocated);
+            }
+        }
+    }
+
+    @Test
+    public void zeroEpsilonIsExact() {
+        SimplexNoise noise = new SimplexNoise(30000, 0.66, 99);
+        double[] exact = new double[WIDTH * HEIGHT];
+        double[] out = new double[WIDTH * HEIGHT];
+        for (int[] grid : GRIDS) {
+            noise.getNoise(exact, grid[0], grid[1], grid[2], WIDTH, HEIGHT);
+            assertEquals(0.0, noise.getNoise(out, grid[0], grid[1], grid[2],
+                    WIDTH, HEIGHT, 0.0), 0.0);
+            assertArrayEquals(exact, out, 0.0);
+        }
+    }
+
+    @Test
+    public void prunedGridStaysWithinItsBound() {
+        SimplexNoise[] noises = {
+            new SimplexNoise(30000, 0.66, 1),
+            new SimplexNoise(300000, 0.77, 2),
+            new SimplexNoise(32, 0.5, 3),
+            new SimplexNoise(1024, 1.5, 4)
+        };
+        double[] out = new double[WIDTH * HEIGHT];
+        for (SimplexNoise noise : noises) {
+            for (double epsilon : EPSILONS) {
+                for (int[] grid : GRIDS) {
+                    double bound = noise.getNoise(out, grid[0], grid[1],
+                            grid[2], WIDTH, HEIGHT, epsilon);
+                    assertTrue(bound <= epsilon);
+                    for (int row = 0; row < HEIGHT; row++) {
+                        for (int col = 0; col < WIDTH; col++) {
+                            double exact = noise.getNoise(
+                                    grid[0] + col * grid[2],
+                                    grid[1] + row * grid[2]);
+                            assertEquals(exact, out[row * WIDTH + col], bound);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void prunedNoiseKeepsTheTerrain() {
+        double epsilon = Chunk.getNoiseEpsilon();
+        try {
+            Chunk.setNoiseEpsilon(0.0);
+            Chunk exact = TestChunks.generate(445L);
+            Chunk.setNoiseEpsilon(0.5);
+            Chunk pruned = TestChunks.generate(445L);
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                for (int y = 0; y < TestChunks.HEIGHT; y++) {
+                    for (int z = 0; z < Chunk.SIZE; z++) {
+                        assertEquals(typeAt(exact, x, y, z),
+                                typeAt(pruned, x, y, z));
+                    }
+                }
+            }
+        } finally {
+            Chunk.setNoiseEpsilon(epsilon);
+        }
+    }
+
+    // method: typeAt
+    // purpose: Returns the type id of the block at a local coordinate, -1
+    // for air
+    private static int typeAt(Chunk chunk, int x, int y, int z) {
+        Block block = chunk.getBlock(x * Chunk.LENGTH, y * Chunk.LENGTH,
+                z * Chunk.LENGTH);
+        return block == null ? -1 : block.getTypeId();
+    }
+}